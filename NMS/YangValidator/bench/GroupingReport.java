@@ -0,0 +1,111 @@
+import model.YangModule;
+import model.YangNode;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Node counts, retained heap and parse time of a module whose groupings
+ * are used many times (in the style of ietf-interfaces), with grouping
+ * bodies copied per uses versus expanded once and shared.
+ *
+ * Usage: java -Xmx2g -cp "out:lib/json-20231013.jar" GroupingReport [uses, e.g. 5000]
+ */
+public class GroupingReport {
+
+    public static void main(String[] args) throws IOException {
+        int uses = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        File file = File.createTempFile("grouping-", ".yang");
+        file.deleteOnExit();
+        writeModule(file, uses);
+
+        YangParser parser = new YangParser();
+        // Warm up both paths so timings compare compiled code
+        for (int i = 0; i < 3; i++) {
+            parse(parser, file, false);
+            parse(parser, file, true);
+        }
+
+        System.out.println("=== Grouping Expansion Report ===");
+        System.out.printf("Input: %d KB, %d uses of a %d-node grouping%n", file.length() / 1024, uses, 2 + 3 + 3 * 24);
+        report("Copied per uses", parser, file, false);
+        report("Shared          ", parser, file, true);
+    }
+
+    private static void report(String name, YangParser parser, File file, boolean share) throws IOException {
+        long baseline = usedHeap();
+        long start = System.nanoTime();
+        YangModule module = parse(parser, file, share);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        long bytes = usedHeap() - baseline;
+
+        long[] counts = new long[2];
+        Set<YangNode> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        count(module.getNodes(), distinct, counts);
+        System.out.printf("%s: %,9d nodes in tree, %,9d YangNode objects, %8s retained, parsed in %d ms%n",
+                name, counts[0], distinct.size(), mb(bytes), millis);
+    }
+
+    private static YangModule parse(YangParser parser, File file, boolean share) throws IOException {
+        YangTreeBuilder builder = new YangTreeBuilder(share);
+        parser.parse(file.getPath(), builder);
+        return builder.getModule();
+    }
+
+    private static void count(List<YangNode> nodes, Set<YangNode> distinct, long[] counts) {
+        for (YangNode node : nodes) {
+            counts[0]++;
+            distinct.add(node);
+            count(node.getChildren(), distinct, counts);
+        }
+    }
+
+    // One list entry per port, each using the same interface grouping,
+    // which in turn uses a counters grouping three times
+    private static void writeModule(File file, int uses) throws IOException {
+        try (PrintWriter out = new PrintWriter(file, "UTF-8")) {
+            out.println("module grouping-report {");
+            out.println("  namespace \"urn:example:grouping-report\";");
+            out.println("  prefix gr;");
+            out.println("  grouping counters {");
+            for (int i = 0; i < 24; i++) {
+                out.println("    leaf counter-" + i + " { type uint64; description \"Counter " + i + "\"; }");
+            }
+            out.println("  }");
+            out.println("  grouping interface {");
+            out.println("    leaf name { type string; }");
+            out.println("    leaf enabled { type boolean; }");
+            for (String direction : new String[] {"in", "out", "errors"}) {
+                out.println("    container " + direction + " { uses counters; }");
+            }
+            out.println("  }");
+            out.println("  container ports {");
+            for (int i = 0; i < uses; i++) {
+                out.println("    container port-" + i + " { uses interface; }");
+            }
+            out.println("  }");
+            out.println("}");
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String mb(long bytes) {
+        return String.format("%.1f MB", bytes / (double) (1 << 20));
+    }
+}
@@ -0,0 +1,63 @@
+import model.YangModule;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Measures instance-data validation throughput against input/example.yang
+ * using device configurations with a configurable number of interfaces.
+ *
+ * Usage: java -cp "out:lib/json-20231013.jar" InstanceBenchmark [interfaces] [seconds]
+ */
+public class InstanceBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int interfaces = args.length > 0 ? Integer.parseInt(args[0]) : 48;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        YangModule module = new YangParser().parseYangFile("input/example.yang");
+        InstanceValidator validator = new InstanceValidator(module);
+        JSONObject document = new JSONObject(device(interfaces));
+
+        System.out.println("=== Instance Validation Benchmark ===");
+        System.out.println("Document: " + interfaces + " interfaces, " + document.toString().length() + " chars");
+
+        // Warm up before timing
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            validator.validate(document);
+        }
+
+        int errors = 0;
+        long count = 0;
+        long start = System.nanoTime();
+        deadline = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            List<InstanceError> result = validator.validate(document);
+            errors += result.size();
+            count++;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Validated     : %d documents (%d errors)%n", count, errors);
+        System.out.printf("Throughput    : %,.0f docs/s%n", count / elapsed);
+        System.out.printf("Mean          : %.2f us/doc%n", elapsed * 1e6 / count);
+    }
+
+    private static String device(int interfaces) {
+        JSONArray list = new JSONArray();
+        for (int i = 0; i < interfaces; i++) {
+            list.put(new JSONObject().put("name", "eth" + i).put("enabled", i % 2 == 0).put("mtu", 1500));
+        }
+        JSONObject system = new JSONObject()
+                .put("hostname", "router-1")
+                .put("dns-servers", new JSONArray().put("8.8.8.8").put("1.1.1.1"))
+                .put("services", new JSONObject().put("service", new JSONArray()
+                        .put(new JSONObject().put("name", "ssh").put("enabled", true))));
+        return new JSONObject()
+                .put("example:system", system)
+                .put("example:interfaces", new JSONObject().put("interface", list))
+                .toString();
+    }
+}
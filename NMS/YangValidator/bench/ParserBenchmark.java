@@ -0,0 +1,80 @@
+import model.YangModule;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Compares the single-pass YangLexer based parser against the original
+ * regex cascade on a synthetic module, and both against loading the same
+ * module from its compiled .yangc form.
+ *
+ * Usage: java -cp "out:lib/json-20231013.jar" ParserBenchmark [size] [iterations]
+ */
+public class ParserBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long size = args.length > 0 ? YangCorpusGenerator.parseSize(args[0]) : 2 * 1024 * 1024;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        File file = File.createTempFile("bench-", ".yang");
+        file.deleteOnExit();
+        YangCorpusGenerator generator = new YangCorpusGenerator();
+        generator.setTargetBytes(size);
+        YangCorpusGenerator.Stats stats = generator.generate(file, "bench");
+        String path = file.getPath();
+
+        System.out.println("=== Parser Benchmark ===");
+        System.out.printf("Input: %d statements, %d KB%n", stats.statements, file.length() / 1024);
+
+        YangParser parser = new YangParser();
+        RegexCascadeParser baseline = new RegexCascadeParser();
+
+        // Warm up both implementations before timing
+        for (int i = 0; i < 5; i++) {
+            parser.parseYangFile(path);
+            baseline.parseYangFile(path);
+        }
+
+        long regexNanos = time(() -> baseline.parseYangFile(path), iterations);
+        long lexerNanos = time(() -> parser.parseYangFile(path), iterations);
+
+        File compiled = File.createTempFile("bench-", YangcFile.EXTENSION);
+        compiled.deleteOnExit();
+        YangcFile.write(parser.parseYangFile(path), compiled.toPath());
+        for (int i = 0; i < 5; i++) {
+            YangcFile.load(compiled.toPath());
+        }
+        long yangcNanos = time(() -> YangcFile.load(compiled.toPath()), iterations);
+        long openStart = System.nanoTime();
+        int roots = 0;
+        for (int i = 0; i < iterations; i++) {
+            roots += YangcFile.open(compiled.toPath()).getFirstRoot();
+        }
+        long openNanos = (System.nanoTime() - openStart) / iterations;
+        if (roots < -iterations) {
+            System.out.println(roots); // keep the result alive
+        }
+
+        System.out.printf("Regex cascade : %8.2f ms/op%n", regexNanos / 1e6);
+        System.out.printf("YangLexer     : %8.2f ms/op%n", lexerNanos / 1e6);
+        System.out.printf("Speedup       : %8.2fx%n", (double) regexNanos / lexerNanos);
+        System.out.printf(".yangc load   : %8.2f ms/op (%d KB)%n", yangcNanos / 1e6, compiled.length() / 1024);
+        System.out.printf(".yangc open   : %8.2f ms/op (mapped, no nodes built)%n", openNanos / 1e6);
+    }
+
+    private interface ParseCall {
+        YangModule run() throws IOException;
+    }
+
+    private static long time(ParseCall call, int iterations) throws IOException {
+        long start = System.nanoTime();
+        int nodes = 0;
+        for (int i = 0; i < iterations; i++) {
+            nodes += call.run().getNodes().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (nodes < 0) {
+            System.out.println(nodes); // keep the result alive
+        }
+        return elapsed / iterations;
+    }
+}
@@ -0,0 +1,96 @@
+import model.YangModule;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives ValidationPipeline with a fast and with a deliberately slow
+ * subscriber. Reports throughput and the largest number of documents that
+ * were submitted but not yet consumed, which stays bounded by the
+ * pipeline's buffers when the sink is slow.
+ *
+ * Usage: java -cp "out:lib/json-20231013.jar" PipelineBenchmark [documents] [parallelism] [buffer]
+ */
+public class PipelineBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int documents = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int buffer = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+
+        YangModule module = new YangParser().parseYangFile("input/example.yang");
+        String json = "{\"example:system\":{\"hostname\":\"r1\",\"dns-servers\":[\"8.8.8.8\"]},"
+                + "\"example:interfaces\":{\"interface\":[{\"name\":\"eth0\",\"mtu\":1500},{\"name\":\"eth1\",\"mtu\":9000}]}}";
+
+        System.out.println("=== Validation Pipeline Benchmark ===");
+        System.out.printf("parallelism %d per stage, buffers of %d%n", parallelism, buffer);
+        run("fast sink", module, json, documents, parallelism, buffer, 0);
+        run("slow sink", module, json, documents / 100, parallelism, buffer, 1);
+    }
+
+    private static void run(String name, YangModule module, String json, int documents,
+                            int parallelism, int buffer, long sinkDelayMillis) throws InterruptedException, IOException {
+        AtomicLong consumed = new AtomicLong();
+        AtomicLong maxInFlight = new AtomicLong();
+        AtomicLong outOfOrder = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Not a try resource: closing it is what completes the run
+        SubmissionPublisher<ValidationPipeline.Document> source = new SubmissionPublisher<>();
+        try (ValidationPipeline pipeline = new ValidationPipeline(module, parallelism, parallelism, buffer)) {
+            source.subscribe(pipeline);
+            pipeline.subscribe(new Flow.Subscriber<ValidationPipeline.Result>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(ValidationPipeline.Result result) {
+                    if (Long.parseLong(result.getId()) != consumed.getAndIncrement()) {
+                        outOfOrder.incrementAndGet();
+                    }
+                    if (sinkDelayMillis > 0) {
+                        try {
+                            Thread.sleep(sinkDelayMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    throwable.printStackTrace();
+                    done.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            });
+
+            long start = System.nanoTime();
+            for (int i = 0; i < documents; i++) {
+                // Blocks while the pipeline is full
+                source.submit(new ValidationPipeline.Document(Integer.toString(i), json));
+                maxInFlight.accumulateAndGet(i + 1 - consumed.get(), Math::max);
+            }
+            source.close();
+            done.await();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-10s: %,d docs in %.2f s (%,.0f docs/s), max in flight %d, out of order %d%n",
+                    name, consumed.get(), seconds, consumed.get() / seconds, maxInFlight.get(), outOfOrder.get());
+        } finally {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import model.CompactSchema;
+import model.StringTable;
+import model.YangModule;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Compares the retained heap of a parsed YangModule tree with its
+ * CompactSchema form for a synthetic module. The distinct string data is
+ * measured separately so the structural overhead of each form can be
+ * compared on its own.
+ *
+ * Usage: java -Xmx2g -cp "out:lib/json-20231013.jar" SchemaMemoryReport [size, e.g. 20M]
+ */
+public class SchemaMemoryReport {
+
+    public static void main(String[] args) throws IOException {
+        long size = args.length > 0 ? YangCorpusGenerator.parseSize(args[0]) : 20L << 20;
+        File file = File.createTempFile("schema-memory-", ".yang");
+        file.deleteOnExit();
+        YangCorpusGenerator generator = new YangCorpusGenerator();
+        generator.setTargetBytes(size);
+        generator.generate(file, "memory");
+
+        YangParser parser = new YangParser();
+
+        long baseline = usedHeap();
+        YangModule module = parser.parseYangFile(file.getPath());
+        long treeBytes = usedHeap() - baseline;
+
+        StringTable strings = new StringTable();
+        CompactSchema schema = CompactSchema.fromModule(module, strings);
+        int nodes = schema.getNodeCount();
+        module = null;
+        long compactBytes = usedHeap() - baseline;
+
+        // Independent copies of every distinct string, to size the raw text
+        long beforeStrings = usedHeap();
+        String[] text = new String[strings.size()];
+        for (int i = 0; i < text.length; i++) {
+            text[i] = new String(strings.get(i).toCharArray());
+        }
+        long stringBytes = usedHeap() - beforeStrings;
+
+        System.out.println("=== Schema Memory Report ===");
+        System.out.printf("Input: %d KB, %d nodes, %d distinct strings%n", file.length() / 1024, nodes, strings.size());
+        System.out.printf("YangModule tree : %10s  (%5.1f bytes/node)%n", mb(treeBytes), treeBytes / (double) nodes);
+        System.out.printf("CompactSchema   : %10s  (%5.1f bytes/node, %s in node arrays)%n",
+                mb(compactBytes), compactBytes / (double) nodes, mb(schema.getArrayBytes()));
+        System.out.printf("Reduction       : %9.1fx%n", treeBytes / (double) compactBytes);
+        System.out.printf("%nDistinct string data: %s%n", mb(stringBytes));
+        System.out.printf("Structure only  : tree %s (%.1f bytes/node), compact %s (%.1f bytes/node), %.1fx%n",
+                mb(treeBytes - stringBytes), (treeBytes - stringBytes) / (double) nodes,
+                mb(compactBytes - stringBytes), (compactBytes - stringBytes) / (double) nodes,
+                (treeBytes - stringBytes) / (double) (compactBytes - stringBytes));
+
+        // Keep the schema reachable until after the last measurement
+        if (schema.getNodeCount() < 0 || text.length < 0) {
+            System.out.println(module);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String mb(long bytes) {
+        return String.format("%.1f MB", bytes / (double) (1 << 20));
+    }
+}
@@ -0,0 +1,146 @@
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares compiled TypeCheckers against dispatching on the raw
+ * YangNode.getDataType() string for every value.
+ *
+ * Both sides check the same mix of leaves and RFC 7951 values. The string
+ * side is the obvious implementation on top of getDataType(): a switch on
+ * the type name followed by a range check.
+ *
+ * Usage: java -cp "out:lib/json-20231013.jar" TypeCheckBenchmark [seconds]
+ */
+public class TypeCheckBenchmark {
+    private static final String[] TYPES = {"string", "boolean", "uint8", "uint16", "uint32", "int32", "int64", "decimal64"};
+
+    public static void main(String[] args) {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 3.0;
+        int count = 1 << 16;
+        Random random = new Random(1);
+        String[] dataTypes = new String[count];
+        TypeChecker[] checkers = new TypeChecker[count];
+        Object[] values = new Object[count];
+        List<String> noPatterns = Collections.emptyList();
+        for (int i = 0; i < count; i++) {
+            String type = TYPES[random.nextInt(TYPES.length)];
+            // Copy so the switch really compares characters, as it would for parsed schemas
+            dataTypes[i] = new String(type.toCharArray());
+            checkers[i] = TypeCheckers.compile(type, null, null, noPatterns);
+            values[i] = value(type, random);
+        }
+
+        System.out.println("=== Type Check Benchmark ===");
+        System.out.printf("%d leaves, types: %s%n", count, String.join(", ", TYPES));
+
+        double stringNs = run("string dispatch", seconds, count, () -> {
+            int valid = 0;
+            for (int i = 0; i < count; i++) {
+                if (checkByName(dataTypes[i], values[i])) valid++;
+            }
+            return valid;
+        });
+        double compiledNs = run("compiled checkers", seconds, count, () -> {
+            int valid = 0;
+            for (int i = 0; i < count; i++) {
+                if (checkers[i].check(values[i])) valid++;
+            }
+            return valid;
+        });
+        System.out.printf("Speedup           : %8.2fx%n", stringNs / compiledNs);
+    }
+
+    private interface Pass {
+        int run();
+    }
+
+    private static double run(String name, double seconds, int count, Pass pass) {
+        long budget = (long) (seconds * 1e9);
+        long warmupEnd = System.nanoTime() + budget / 2;
+        int sink = 0;
+        while (System.nanoTime() < warmupEnd) {
+            sink += pass.run();
+        }
+
+        long passes = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long end = start + budget;
+        long now;
+        do {
+            sink += pass.run();
+            passes++;
+            now = System.nanoTime();
+        } while (now < end);
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        double nsPerValue = (now - start) / (double) (passes * count);
+        System.out.printf("%-18s: %8.2f ns/value, %6.2f B/value%n",
+                name, nsPerValue, allocated / (double) (passes * count));
+        if (sink == 42) {
+            System.out.println(sink); // keep the results alive
+        }
+        return nsPerValue;
+    }
+
+    private static Object value(String type, Random random) {
+        switch (type) {
+            case "string": return "value-" + random.nextInt(100);
+            case "boolean": return random.nextBoolean();
+            case "int64": return Long.toString(random.nextLong());
+            case "decimal64": return new BigDecimal(random.nextInt(100000)).movePointLeft(2).toPlainString();
+            default: return random.nextInt(70000);
+        }
+    }
+
+    // What a validator built directly on the dataType string ends up doing
+    private static boolean checkByName(String dataType, Object value) {
+        switch (dataType) {
+            case "string": return value instanceof String;
+            case "boolean": return value instanceof Boolean;
+            case "int8": return isLong(value) && inRange(value, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            case "int16": return isLong(value) && inRange(value, Short.MIN_VALUE, Short.MAX_VALUE);
+            case "int32": return isLong(value) && inRange(value, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case "uint8": return isLong(value) && inRange(value, 0, 255);
+            case "uint16": return isLong(value) && inRange(value, 0, 65535);
+            case "uint32": return isLong(value) && inRange(value, 0, 4294967295L);
+            case "int64":
+                if (!(value instanceof String)) return false;
+                try {
+                    Long.parseLong((String) value);
+                    return true;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            case "decimal64":
+                if (!(value instanceof String)) return false;
+                try {
+                    new BigDecimal((String) value);
+                    return true;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            default: return value != null;
+        }
+    }
+
+    private static boolean isLong(Object value) {
+        return value instanceof Integer || value instanceof Long;
+    }
+
+    private static boolean inRange(Object value, long min, long max) {
+        long v = ((Number) value).longValue();
+        return v >= min && v <= max;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,309 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Deterministic generator of synthetic YANG modules for scale testing.
+ *
+ * The same seed and settings always produce the same bytes. Top-level
+ * containers are emitted until the target size is reached, each holding a
+ * container tree of the configured depth and fan-out with leaves and keyed
+ * lists at every level. Output is streamed, so modules of hundreds of MB
+ * need no more memory than a small one.
+ *
+ * With a non-zero error rate, each simple statement has that probability
+ * of receiving one injected mistake the parser reports: a missing
+ * semicolon, an unquoted description or a doubled semicolon.
+ *
+ * Usage: java -cp out YangCorpusGenerator [options] OUTPUT_DIR
+ *   --seed N          random seed (default 1)
+ *   --count N         number of modules to write (default 1)
+ *   --size SIZE       target size per module, e.g. 64K, 20M (default 64K)
+ *   --depth N         container nesting depth (default 3)
+ *   --fanout N        child containers per container (default 3)
+ *   --lists N         lists per container (default 1)
+ *   --leaves N        leaves per container and per list (default 4)
+ *   --desc-length N   description length in characters (default 40)
+ *   --error-rate R    probability of an injected error per statement (default 0)
+ */
+public class YangCorpusGenerator {
+    private static final String[] TYPES = {
+        "string", "boolean", "uint8", "uint16", "uint32", "int32", "int64", "decimal64"
+    };
+    private static final String[] WORDS = {
+        "interface", "address", "configuration", "state", "counter", "routing", "policy",
+        "neighbor", "session", "timer", "threshold", "statistics", "enabled", "vendor", "port"
+    };
+
+    private long seed = 1;
+    private int depth = 3;
+    private int fanout = 3;
+    private int lists = 1;
+    private int leaves = 4;
+    private int descriptionLength = 40;
+    private double errorRate = 0;
+    private long targetBytes = 64 * 1024;
+
+    // Per-run state
+    private Random random;
+    private CountingWriter out;
+    private int statements;
+    private int injectedErrors;
+    private int nameCounter;
+
+    /** Outcome of one generated module. */
+    public static class Stats {
+        public final long bytes;
+        public final int statements;
+        public final int injectedErrors;
+
+        Stats(long bytes, int statements, int injectedErrors) {
+            this.bytes = bytes;
+            this.statements = statements;
+            this.injectedErrors = injectedErrors;
+        }
+    }
+
+    public void setSeed(long seed) { this.seed = seed; }
+    public void setDepth(int depth) { this.depth = depth; }
+    public void setFanout(int fanout) { this.fanout = fanout; }
+    public void setLists(int lists) { this.lists = lists; }
+    public void setLeaves(int leaves) { this.leaves = leaves; }
+    public void setDescriptionLength(int descriptionLength) { this.descriptionLength = descriptionLength; }
+    public void setErrorRate(double errorRate) { this.errorRate = errorRate; }
+    public void setTargetBytes(long targetBytes) { this.targetBytes = targetBytes; }
+
+    public Stats generate(File file, String moduleName) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) {
+            parent.mkdirs();
+        }
+        try (Writer writer = new BufferedWriter(new FileWriter(file), 64 * 1024)) {
+            return generate(writer, moduleName);
+        }
+    }
+
+    public Stats generate(Writer writer, String moduleName) throws IOException {
+        random = new Random(seed ^ moduleName.hashCode());
+        out = new CountingWriter(writer);
+        statements = 0;
+        injectedErrors = 0;
+        nameCounter = 0;
+
+        out.write("module " + moduleName + " {\n");
+        simple(1, "namespace", quote("urn:example:" + moduleName));
+        simple(1, "prefix", moduleName.length() > 3 ? moduleName.substring(0, 3) : moduleName);
+        out.write("\n");
+        simple(1, "description", quote(description()));
+        out.write("\n");
+
+        int top = 0;
+        do {
+            container(1, "root" + top++, depth);
+        } while (out.count < targetBytes);
+
+        out.write("}\n");
+        out.flush();
+        return new Stats(out.count, statements, injectedErrors);
+    }
+
+    private void container(int indent, String name, int remainingDepth) throws IOException {
+        open(indent, "container", name);
+        simple(indent + 1, "description", quote(description()));
+        for (int i = 0; i < leaves; i++) {
+            leaf(indent + 1);
+        }
+        for (int i = 0; i < lists; i++) {
+            list(indent + 1);
+        }
+        if (remainingDepth > 1) {
+            for (int i = 0; i < fanout; i++) {
+                container(indent + 1, word() + "-" + nextId(), remainingDepth - 1);
+            }
+        }
+        close(indent);
+    }
+
+    private void list(int indent) throws IOException {
+        open(indent, "list", word() + "-list-" + nextId());
+        simple(indent + 1, "key", quote("name"));
+        simple(indent + 1, "description", quote(description()));
+        open(indent + 1, "leaf", "name");
+        simple(indent + 2, "type", "string");
+        close(indent + 1);
+        for (int i = 0; i < leaves; i++) {
+            leaf(indent + 1);
+        }
+        close(indent);
+    }
+
+    private void leaf(int indent) throws IOException {
+        boolean leafList = random.nextInt(8) == 0;
+        open(indent, leafList ? "leaf-list" : "leaf", word() + "-" + nextId());
+        simple(indent + 1, "type", TYPES[random.nextInt(TYPES.length)]);
+        if (!leafList && random.nextInt(5) == 0) {
+            simple(indent + 1, "mandatory", "true");
+        }
+        simple(indent + 1, "description", quote(description()));
+        close(indent);
+    }
+
+    private void open(int indent, String keyword, String name) throws IOException {
+        statements++;
+        indent(indent);
+        out.write(keyword + " " + name + " {\n");
+    }
+
+    private void close(int indent) throws IOException {
+        indent(indent);
+        out.write("}\n");
+    }
+
+    private void simple(int indent, String keyword, String argument) throws IOException {
+        statements++;
+        indent(indent);
+        out.write(keyword);
+        out.write(' ');
+
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            injectedErrors++;
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                // Missing semicolon
+                out.write(argument + "\n");
+                return;
+            }
+            if (kind == 1 && "description".equals(keyword)) {
+                // Unquoted description
+                out.write(argument.substring(1, argument.length() - 1) + ";\n");
+                return;
+            }
+            out.write(argument + ";;\n");
+            return;
+        }
+        out.write(argument + ";\n");
+    }
+
+    private void indent(int indent) throws IOException {
+        for (int i = 0; i < indent; i++) {
+            out.write("    ");
+        }
+    }
+
+    private String description() {
+        StringBuilder sb = new StringBuilder(descriptionLength + 16);
+        while (sb.length() < descriptionLength) {
+            if (sb.length() > 0) sb.append(' ');
+            sb.append(word());
+        }
+        sb.setLength(Math.max(1, descriptionLength));
+        return sb.toString().trim();
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private int nextId() {
+        return nameCounter++;
+    }
+
+    private static String quote(String s) {
+        return "\"" + s + "\"";
+    }
+
+    private static class CountingWriter extends Writer {
+        private final Writer delegate;
+        long count;
+
+        CountingWriter(Writer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            delegate.write(cbuf, off, len);
+            count += len;
+        }
+
+        @Override
+        public void write(String str) throws IOException {
+            delegate.write(str);
+            count += str.length();
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            delegate.write(c);
+            count++;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    static long parseSize(String size) {
+        String s = size.trim().toUpperCase();
+        long multiplier = 1;
+        if (s.endsWith("K")) multiplier = 1024;
+        else if (s.endsWith("M")) multiplier = 1024 * 1024;
+        else if (s.endsWith("G")) multiplier = 1024L * 1024 * 1024;
+        if (multiplier > 1) s = s.substring(0, s.length() - 1);
+        return Long.parseLong(s) * multiplier;
+    }
+
+    public static void main(String[] args) throws IOException {
+        YangCorpusGenerator generator = new YangCorpusGenerator();
+        int count = 1;
+        String outputDir = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                outputDir = arg;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + arg);
+                System.exit(2);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--seed": generator.setSeed(Long.parseLong(value)); break;
+                case "--count": count = Integer.parseInt(value); break;
+                case "--size": generator.setTargetBytes(parseSize(value)); break;
+                case "--depth": generator.setDepth(Integer.parseInt(value)); break;
+                case "--fanout": generator.setFanout(Integer.parseInt(value)); break;
+                case "--lists": generator.setLists(Integer.parseInt(value)); break;
+                case "--leaves": generator.setLeaves(Integer.parseInt(value)); break;
+                case "--desc-length": generator.setDescriptionLength(Integer.parseInt(value)); break;
+                case "--error-rate": generator.setErrorRate(Double.parseDouble(value)); break;
+                default:
+                    System.err.println("Unknown option: " + arg);
+                    System.exit(2);
+            }
+        }
+        if (outputDir == null) {
+            System.err.println("Usage: java YangCorpusGenerator [options] OUTPUT_DIR");
+            System.exit(2);
+        }
+
+        for (int i = 0; i < count; i++) {
+            String name = "synthetic-" + i;
+            File file = new File(outputDir, name + ".yang");
+            Stats stats = generator.generate(file, name);
+            System.out.printf("%s: %d KB, %d statements, %d injected error(s)%n",
+                    file.getPath(), stats.bytes / 1024, stats.statements, stats.injectedErrors);
+        }
+    }
+}
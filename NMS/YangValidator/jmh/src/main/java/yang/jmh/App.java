@@ -0,0 +1,125 @@
+package yang.jmh;
+
+import model.YangModule;
+import org.json.JSONObject;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Calls into the application classes, which live in the unnamed package
+ * and so cannot be imported from a named package (JMH requires one).
+ * Each method is looked up once into a static final handle bound to its
+ * receiver, which the JIT inlines like a direct call.
+ */
+final class App {
+    private static final MethodHandle PARSE_YANG_FILE;
+    private static final MethodHandle VALIDATE_SYNTAX;
+    private static final MethodHandle CONVERT_TO_JSON;
+    private static final MethodHandle SAVE_JSON;
+    private static final MethodHandle SAVE_MODULE;
+    private static final MethodHandle NEW_GENERATOR;
+    private static final MethodHandle SET_TARGET_BYTES;
+    private static final MethodHandle GENERATE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> parserClass = Class.forName("YangParser");
+            Class<?> converterClass = Class.forName("JsonConverter");
+            Class<?> generatorClass = Class.forName("YangCorpusGenerator");
+            Object parser = parserClass.getConstructor().newInstance();
+            Object converter = converterClass.getConstructor().newInstance();
+
+            PARSE_YANG_FILE = lookup.findVirtual(parserClass, "parseYangFile",
+                    MethodType.methodType(YangModule.class, String.class)).bindTo(parser);
+            VALIDATE_SYNTAX = lookup.findVirtual(parserClass, "validateSyntax",
+                    MethodType.methodType(void.class, String.class)).bindTo(parser);
+            CONVERT_TO_JSON = lookup.findVirtual(converterClass, "convertToJson",
+                    MethodType.methodType(JSONObject.class, YangModule.class)).bindTo(converter);
+            SAVE_JSON = lookup.findVirtual(converterClass, "saveJsonToFile",
+                    MethodType.methodType(void.class, JSONObject.class, String.class)).bindTo(converter);
+            SAVE_MODULE = lookup.findVirtual(converterClass, "saveJsonToFile",
+                    MethodType.methodType(void.class, YangModule.class, String.class)).bindTo(converter);
+            NEW_GENERATOR = lookup.findConstructor(generatorClass, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+            SET_TARGET_BYTES = lookup.findVirtual(generatorClass, "setTargetBytes",
+                    MethodType.methodType(void.class, long.class))
+                    .asType(MethodType.methodType(void.class, Object.class, long.class));
+            GENERATE = lookup.findVirtual(generatorClass, "generate",
+                    MethodType.methodType(generatorClass.getMethod("generate", File.class, String.class).getReturnType(),
+                            File.class, String.class))
+                    .asType(MethodType.methodType(void.class, Object.class, File.class, String.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private App() {
+    }
+
+    static YangModule parseYangFile(String path) throws IOException {
+        try {
+            return (YangModule) PARSE_YANG_FILE.invokeExact(path);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static void validateSyntax(String path) throws IOException {
+        try {
+            VALIDATE_SYNTAX.invokeExact(path);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static JSONObject convertToJson(YangModule module) {
+        try {
+            return (JSONObject) CONVERT_TO_JSON.invokeExact(module);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static void saveJsonToFile(JSONObject json, String path) throws IOException {
+        try {
+            SAVE_JSON.invokeExact(json, path);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    static void saveJsonToFile(YangModule module, String path) throws IOException {
+        try {
+            SAVE_MODULE.invokeExact(module, path);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /** Writes a synthetic module of about targetBytes to file. */
+    static void generate(File file, String moduleName, long targetBytes) throws IOException {
+        try {
+            Object generator = NEW_GENERATOR.invokeExact();
+            SET_TARGET_BYTES.invokeExact(generator, targetBytes);
+            GENERATE.invokeExact(generator, file, moduleName);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package yang.jmh;
+
+import model.YangModule;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parser, validator and converter across small, medium and very large
+ * synthetic modules (about 16 KB, 2 MB and 20 MB).
+ *
+ * Throughput and sampled latency (with percentiles) come from the two
+ * benchmark modes; run with "-prof gc" for the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class YangBenchmarks {
+    @Param({"small", "medium", "large"})
+    public String size;
+
+    private File input;
+    private File output;
+    private YangModule module;
+    private JSONObject json;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        long bytes = "small".equals(size) ? 16L << 10 : "medium".equals(size) ? 2L << 20 : 20L << 20;
+        input = File.createTempFile("bench-" + size + "-", ".yang");
+        output = File.createTempFile("bench-" + size + "-", ".json");
+        App.generate(input, "bench", bytes);
+        module = App.parseYangFile(input.getPath());
+        json = App.convertToJson(module);
+        // validateSyntax reports to stdout
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(console);
+        input.delete();
+        output.delete();
+    }
+
+    @Benchmark
+    public YangModule parseYangFile() throws IOException {
+        return App.parseYangFile(input.getPath());
+    }
+
+    @Benchmark
+    public void validateSyntax() throws IOException {
+        App.validateSyntax(input.getPath());
+    }
+
+    @Benchmark
+    public JSONObject convertToJson() {
+        return App.convertToJson(module);
+    }
+
+    @Benchmark
+    public void saveJsonToFile() throws IOException {
+        App.saveJsonToFile(json, output.getPath());
+    }
+
+    @Benchmark
+    public void saveJsonToFileStreaming() throws IOException {
+        App.saveJsonToFile(module, output.getPath());
+    }
+}
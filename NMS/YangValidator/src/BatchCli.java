@@ -0,0 +1,478 @@
+import model.YangModule;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Non-interactive entry point for CI and cron jobs.
+ *
+ *   validate FILE...            syntax check every file
+ *   tree FILE...                print the node structure of every file
+ *   convert [-o DIR] FILE...    write DIR/&lt;name&gt;.json for every file
+ *   compile [-o DIR] FILE...    write DIR/&lt;name&gt;.yangc for every file
+ *   stats FILE...               count statements by keyword (streaming, no tree)
+ *   instance --schema FILE DATA...
+ *                               validate RFC 7951 JSON instance documents
+ *   telemetry --schema FILE [NDJSON...]
+ *                               validate NDJSON updates (stdin if no file)
+ *   imports [--path DIR...] FILE|MODULE...
+ *                               load modules with their imports and print
+ *                               the dependency waves
+ *
+ * tree and convert also accept .yangc files, which are loaded directly
+ * instead of being parsed.
+ *
+ * --path DIR[:DIR...] lets instance and telemetry resolve the schema's
+ * imports on demand from those directories and report how many were used.
+ *
+ * --cache DIR keeps parsed modules in DIR keyed by content hash, so
+ * unchanged files are not re-parsed on the next run.
+ *
+ * FILE may be a path, a directory (searched recursively for *.yang, or
+ * *.json for instance data) or a glob such as "input/*.yang". One
+ * YangParser and JsonConverter are reused for the whole batch so JVM
+ * startup and JIT warmup are paid once.
+ *
+ * -o, --cache, --schema and --path take a value; a missing value is a
+ * usage error.
+ */
+public class BatchCli {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_INVALID = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_IO_ERROR = 3;
+
+    private static final int MAX_PRINTED_ERRORS = 100;
+
+    private YangParser parser = new YangParser();
+    // Set by --path; resolves the schema's imports on demand
+    private ModuleRegistry registry;
+    private final JsonConverter converter = new JsonConverter();
+
+    public int run(String[] args) {
+        if (args.length == 0) {
+            printUsage();
+            return EXIT_USAGE;
+        }
+
+        String command = args[0];
+        String outputDir = "output";
+        String schemaPath = null;
+        List<Path> searchPaths = new ArrayList<>();
+        List<String> patterns = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            boolean takesValue = "-o".equals(args[i]) || "--cache".equals(args[i])
+                    || "--schema".equals(args[i]) || "--path".equals(args[i]);
+            if (takesValue && i + 1 == args.length) {
+                System.err.println("Option " + args[i] + " needs a value");
+                printUsage();
+                return EXIT_USAGE;
+            }
+            if ("-o".equals(args[i])) {
+                outputDir = args[++i];
+            } else if ("--cache".equals(args[i])) {
+                parser = new CachingYangParser(Paths.get(args[++i]));
+            } else if ("--schema".equals(args[i])) {
+                schemaPath = args[++i];
+            } else if ("--path".equals(args[i])) {
+                for (String dir : args[++i].split(File.pathSeparator)) {
+                    searchPaths.add(Paths.get(dir));
+                }
+            } else {
+                patterns.add(args[i]);
+            }
+        }
+
+        if (!"validate".equals(command) && !"tree".equals(command)
+                && !"convert".equals(command) && !"compile".equals(command)
+                && !"stats".equals(command) && !"instance".equals(command)
+                && !"telemetry".equals(command) && !"imports".equals(command)) {
+            System.err.println("Unknown command: " + command);
+            printUsage();
+            return EXIT_USAGE;
+        }
+        if (!searchPaths.isEmpty() && !"instance".equals(command)
+                && !"telemetry".equals(command) && !"imports".equals(command)) {
+            System.err.println("--path is only supported by instance, telemetry and imports");
+            printUsage();
+            return EXIT_USAGE;
+        }
+        if (!searchPaths.isEmpty() && !"imports".equals(command)) {
+            registry = new ModuleRegistry(parser, searchPaths);
+        }
+        if ("instance".equals(command)) {
+            return validateInstances(schemaPath, patterns);
+        }
+        if ("telemetry".equals(command)) {
+            return validateTelemetry(schemaPath, patterns);
+        }
+        if ("imports".equals(command)) {
+            return printImports(searchPaths, patterns);
+        }
+
+        List<Path> files;
+        try {
+            files = expand(patterns);
+        } catch (IOException e) {
+            System.err.println("✗ " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+        if (files.isEmpty()) {
+            System.err.println("No YANG files matched");
+            return EXIT_USAGE;
+        }
+
+        int exitCode = EXIT_OK;
+        int failed = 0;
+        for (Path file : files) {
+            int fileExit = process(command, file, outputDir);
+            if (fileExit != EXIT_OK) {
+                failed++;
+                exitCode = Math.max(exitCode, fileExit);
+            }
+        }
+
+        System.out.println("\n" + files.size() + " file(s) processed, " + failed + " failed");
+        if (parser instanceof CachingYangParser) {
+            System.out.println(((CachingYangParser) parser).getStats());
+        }
+        return exitCode;
+    }
+
+    private int process(String command, Path file, String outputDir) {
+        String filePath = file.toString();
+        if ("stats".equals(command)) {
+            return printStats(file);
+        }
+        String baseName = file.getFileName().toString().replaceFirst("\\.yangc?$", "");
+        YangModule module;
+        try {
+            module = loadModule(file);
+        } catch (IOException e) {
+            System.out.println("✗ " + filePath + ": " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+        if (module == null) {
+            return EXIT_INVALID;
+        }
+
+        switch (command) {
+            case "tree":
+                YangValidator.displayModuleInfo(module);
+                YangValidator.displayNodes(module.getNodes(), 0);
+                break;
+            case "convert":
+                String outputPath = new File(outputDir, baseName + ".json").getPath();
+                try {
+                    converter.saveJsonToFile(module, outputPath);
+                } catch (IOException e) {
+                    System.out.println("✗ Could not write " + outputPath + ": " + e.getMessage());
+                    return EXIT_IO_ERROR;
+                }
+                System.out.println("✓ Output saved to: " + outputPath);
+                break;
+            case "compile":
+                Path compiledPath = Paths.get(outputDir, baseName + YangcFile.EXTENSION);
+                try {
+                    YangcFile.write(module, compiledPath);
+                } catch (IOException e) {
+                    System.out.println("✗ Could not write " + compiledPath + ": " + e.getMessage());
+                    return EXIT_IO_ERROR;
+                }
+                System.out.println("✓ Compiled to: " + compiledPath);
+                break;
+            default:
+                System.out.println("✓ YANG file syntax is valid");
+                break;
+        }
+        return EXIT_OK;
+    }
+
+    /** loadModule() for a schema; with --path its imports become resolvable. */
+    private YangModule loadSchema(Path file) throws IOException {
+        YangModule module = loadModule(file);
+        if (module != null && registry != null) {
+            registry.register(module);
+        }
+        return module;
+    }
+
+    /**
+     * Loads a .yangc file or parses a .yang file, printing its diagnostics.
+     * Returns null if the file has syntax errors.
+     */
+    private YangModule loadModule(Path file) throws IOException {
+        String filePath = file.toString();
+        if (filePath.endsWith(YangcFile.EXTENSION)) {
+            System.out.println("\n== " + filePath);
+            return YangcFile.load(file);
+        }
+        ParseResult result = parser.parse(filePath);
+        System.out.println("\n== " + filePath);
+        YangParser.printDiagnostics(result);
+        return result.hasErrors() ? null : result.getModule();
+    }
+
+    private int validateInstances(String schemaPath, List<String> patterns) {
+        if (schemaPath == null) {
+            System.err.println("instance requires --schema FILE");
+            printUsage();
+            return EXIT_USAGE;
+        }
+
+        StreamingInstanceValidator validator;
+        List<Path> files;
+        try {
+            YangModule module = loadSchema(Paths.get(schemaPath));
+            if (module == null) {
+                return EXIT_INVALID;
+            }
+            validator = new StreamingInstanceValidator(module);
+            files = expand(patterns, ".json");
+        } catch (IOException e) {
+            System.err.println("✗ " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+        if (files.isEmpty()) {
+            System.err.println("No instance documents matched");
+            return EXIT_USAGE;
+        }
+
+        int exitCode = EXIT_OK;
+        int failed = 0;
+        long start = System.nanoTime();
+        for (Path file : files) {
+            // Streamed, so documents of any size fit in memory; errors print as they are found
+            System.out.println("\n== " + file);
+            long errors;
+            try (InputStream in = Files.newInputStream(file)) {
+                errors = validator.validate(in, error -> System.out.println("  ✗ " + error));
+            } catch (JsonStreamReader.SyntaxException e) {
+                System.out.println("✗ " + file + ": " + e.getMessage());
+                failed++;
+                exitCode = Math.max(exitCode, EXIT_INVALID);
+                continue;
+            } catch (IOException e) {
+                System.out.println("✗ " + file + ": " + e.getMessage());
+                failed++;
+                exitCode = Math.max(exitCode, EXIT_IO_ERROR);
+                continue;
+            }
+
+            if (errors == 0) {
+                System.out.println("✓ Instance document is valid");
+            } else {
+                System.out.println("✗ " + errors + " error(s)");
+                failed++;
+                exitCode = Math.max(exitCode, EXIT_INVALID);
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("\n" + files.size() + " document(s) validated in " + millis + " ms, " + failed + " failed");
+        printRegistryReport();
+        return exitCode;
+    }
+
+    private int validateTelemetry(String schemaPath, List<String> files) {
+        if (schemaPath == null) {
+            System.err.println("telemetry requires --schema FILE");
+            printUsage();
+            return EXIT_USAGE;
+        }
+
+        TelemetryValidator validator;
+        try {
+            YangModule module = loadSchema(Paths.get(schemaPath));
+            if (module == null) {
+                return EXIT_INVALID;
+            }
+            validator = new TelemetryValidator(module);
+        } catch (IOException e) {
+            System.err.println("✗ " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+
+        // Print the first errors only; the counters cover the rest
+        long[] printed = {0};
+        Consumer<InstanceError> listener = error -> {
+            if (printed[0]++ < MAX_PRINTED_ERRORS) {
+                System.out.println("  ✗ " + error);
+            }
+        };
+        try {
+            if (files.isEmpty()) {
+                validator.validate(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), listener);
+            }
+            for (String file : files) {
+                try (BufferedReader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+                    validator.validate(in, listener);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("✗ " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+
+        if (printed[0] > MAX_PRINTED_ERRORS) {
+            System.out.println("  ... " + (printed[0] - MAX_PRINTED_ERRORS) + " more error(s)");
+        }
+        System.out.println("\n" + validator);
+        printRegistryReport();
+        return validator.getInvalidUpdates() > 0 ? EXIT_INVALID : EXIT_OK;
+    }
+
+    // With --path: what the schema's augments/deviations did and which imports were loaded
+    private void printRegistryReport() {
+        if (registry == null) {
+            return;
+        }
+        System.out.println(registry.getPatchStats());
+        for (String problem : registry.getProblems()) {
+            System.out.println("  ⚠ " + problem);
+        }
+        System.out.println(registry.getLazyStats());
+    }
+
+    private int printImports(List<Path> searchPaths, List<String> roots) {
+        if (roots.isEmpty()) {
+            System.err.println("imports requires at least one FILE or MODULE");
+            printUsage();
+            return EXIT_USAGE;
+        }
+        // Files given directly also make their directory a search path
+        List<Path> rootFiles = new ArrayList<>();
+        List<String> rootNames = new ArrayList<>();
+        List<Path> paths = new ArrayList<>(searchPaths);
+        for (String root : roots) {
+            Path file = Paths.get(root);
+            if (root.endsWith(".yang") && Files.isRegularFile(file)) {
+                rootFiles.add(file);
+                Path dir = file.toAbsolutePath().getParent();
+                if (dir != null && !paths.contains(dir)) {
+                    paths.add(dir);
+                }
+            } else {
+                rootNames.add(root);
+            }
+        }
+
+        ModuleRegistry registry = new ModuleRegistry(parser, paths);
+        long start = System.nanoTime();
+        try {
+            for (Path file : rootFiles) {
+                registry.loadFile(file);
+            }
+            registry.load(rootNames);
+        } catch (IOException e) {
+            System.err.println("✗ " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        List<List<String>> waves = registry.getWaves();
+        for (int i = 0; i < waves.size(); i++) {
+            System.out.println("Wave " + i + ": " + String.join(", ", waves.get(i)));
+        }
+        System.out.println(registry.getPatchStats());
+        List<String> problems = registry.getProblems();
+        for (String problem : problems) {
+            System.out.println("  ✗ " + problem);
+        }
+        System.out.println("\n" + registry.getLoadedCount() + " module(s) loaded in " + millis + " ms ("
+                + registry.getParseWaves() + " parallel parse wave(s)), " + problems.size() + " problem(s)");
+        return problems.isEmpty() ? EXIT_OK : EXIT_INVALID;
+    }
+
+    private int printStats(Path file) {
+        StatementCounter counter = new StatementCounter();
+        try {
+            parser.parse(file.toString(), counter);
+        } catch (IOException e) {
+            System.out.println("✗ " + file + ": " + e.getMessage());
+            return EXIT_IO_ERROR;
+        }
+
+        System.out.println("\n== " + file);
+        System.out.println("Statements: " + counter.getStatementCount() + ", max depth: " + counter.getMaxDepth());
+        for (String keyword : new String[] {"container", "list", "leaf", "leaf-list"}) {
+            System.out.println("  " + keyword + ": " + counter.getCount(keyword));
+        }
+        System.out.println("Errors: " + counter.getErrorCount() + ", Warnings: " + counter.getWarningCount());
+        return counter.getErrorCount() > 0 ? EXIT_INVALID : EXIT_OK;
+    }
+
+    /**
+     * Expands plain paths, directories and globs into a de-duplicated file list.
+     */
+    static List<Path> expand(List<String> patterns) throws IOException {
+        return expand(patterns, ".yang");
+    }
+
+    static List<Path> expand(List<String> patterns, String extension) throws IOException {
+        Set<Path> files = new LinkedHashSet<>();
+        for (String pattern : patterns) {
+            if (pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0 || pattern.indexOf('[') >= 0) {
+                files.addAll(glob(pattern));
+                continue;
+            }
+            Path path = Paths.get(pattern);
+            if (Files.isDirectory(path)) {
+                files.addAll(BulkParser.findFiles(path, extension));
+            } else if (Files.exists(path)) {
+                files.add(path);
+            } else {
+                throw new IOException("File not found - " + pattern);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    private static List<Path> glob(String pattern) throws IOException {
+        // Walk from the longest wildcard-free directory prefix
+        String normalized = pattern.replace('\\', '/');
+        int wildcard = normalized.length();
+        for (char c : new char[] {'*', '?', '['}) {
+            int i = normalized.indexOf(c);
+            if (i >= 0) wildcard = Math.min(wildcard, i);
+        }
+        int slash = normalized.lastIndexOf('/', wildcard);
+        Path base = slash >= 0 ? Paths.get(normalized.substring(0, slash + 1)) : Paths.get(".");
+
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + normalized);
+        List<Path> matches = new ArrayList<>();
+        if (!Files.isDirectory(base)) {
+            return matches;
+        }
+        try (Stream<Path> paths = Files.walk(base)) {
+            paths.filter(Files::isRegularFile)
+                 .map(p -> slash >= 0 ? p : base.relativize(p))
+                 .filter(matcher::matches)
+                 .sorted()
+                 .forEach(matches::add);
+        }
+        return matches;
+    }
+
+    private static void printUsage() {
+        System.err.println("Usage: java Main <validate|tree|convert|compile|stats> [-o DIR] [--cache DIR] FILE|DIR|GLOB...");
+        System.err.println("       java Main instance --schema FILE.yang [--path DIR...] DATA.json|DIR|GLOB...");
+        System.err.println("       java Main telemetry --schema FILE.yang [--path DIR...] [UPDATES.ndjson...]   (stdin if no file)");
+        System.err.println("       java Main imports [--path DIR" + File.pathSeparator + "DIR...] FILE.yang|MODULE...");
+        System.err.println("Exit codes: 0 ok, 1 validation errors, 2 usage error, 3 I/O error");
+    }
+}
@@ -0,0 +1,128 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Parses and validates many YANG files on a work-stealing ForkJoin pool.
+ *
+ * YangParser keeps no per-file state, so a single instance is shared by all
+ * workers. Each file is one leaf task; idle workers steal halves of the
+ * remaining file range, which keeps all cores busy even when file sizes
+ * vary widely.
+ */
+public class BulkParser {
+    // Ranges at or below this size are parsed sequentially by one worker
+    private static final int SEQUENTIAL_THRESHOLD = 1;
+
+    private final YangParser parser;
+    private final ForkJoinPool pool;
+
+    public BulkParser(YangParser parser) {
+        this(parser, ForkJoinPool.commonPool());
+    }
+
+    public BulkParser(YangParser parser, ForkJoinPool pool) {
+        this.parser = parser;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns every *.yang file below root, sorted by path.
+     */
+    public static List<Path> findYangFiles(Path root) throws IOException {
+        return findFiles(root, ".yang");
+    }
+
+    public static List<Path> findFiles(Path root, String extension) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(p -> p.getFileName().toString().endsWith(extension))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public BulkResult parseDirectory(Path root, Consumer<ParseResult> listener) throws IOException {
+        return parseAll(findYangFiles(root), listener);
+    }
+
+    /**
+     * Parses all files in parallel. The listener is called from worker
+     * threads as soon as each file finishes, so it must be thread-safe.
+     * The returned results are sorted by file path regardless of completion
+     * order.
+     */
+    public BulkResult parseAll(List<Path> files, Consumer<ParseResult> listener) {
+        long start = System.nanoTime();
+        ConcurrentLinkedQueue<ParseResult> results = new ConcurrentLinkedQueue<>();
+
+        pool.invoke(new ParseTask(files, 0, files.size(), results, listener));
+
+        List<ParseResult> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparing(ParseResult::getSource));
+        return new BulkResult(Collections.unmodifiableList(sorted), System.nanoTime() - start);
+    }
+
+    private ParseResult parseOne(Path file) {
+        try {
+            return parser.parse(file.toString());
+        } catch (IOException e) {
+            return failed(file, "Could not read file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // One bad file must not abort the whole run
+            return failed(file, "Could not parse file: " + e);
+        }
+    }
+
+    private static ParseResult failed(Path file, String message) {
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        diagnostics.add(new Diagnostic(Diagnostic.Severity.ERROR, 0, message));
+        return new ParseResult(file.toString(), null, diagnostics);
+    }
+
+    private class ParseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Path> files;
+        private final int from;
+        private final int to;
+        private final ConcurrentLinkedQueue<ParseResult> results;
+        private final Consumer<ParseResult> listener;
+
+        ParseTask(List<Path> files, int from, int to,
+                  ConcurrentLinkedQueue<ParseResult> results, Consumer<ParseResult> listener) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+            this.listener = listener;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    ParseResult result = parseOne(files.get(i));
+                    results.add(result);
+                    if (listener != null) {
+                        listener.accept(result);
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ParseTask(files, from, mid, results, listener),
+                      new ParseTask(files, mid, to, results, listener));
+        }
+    }
+}
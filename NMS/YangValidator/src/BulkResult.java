@@ -0,0 +1,57 @@
+import model.YangModule;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregated outcome of a BulkParser run.
+ */
+public class BulkResult {
+    private final List<ParseResult> results;
+    private final long elapsedNanos;
+
+    public BulkResult(List<ParseResult> results, long elapsedNanos) {
+        this.results = results;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /** Per-file results, sorted by file path. */
+    public List<ParseResult> getResults() { return results; }
+
+    public List<YangModule> getModules() {
+        List<YangModule> modules = new ArrayList<>();
+        for (ParseResult result : results) {
+            if (result.getModule() != null) {
+                modules.add(result.getModule());
+            }
+        }
+        return modules;
+    }
+
+    public int getFileCount() { return results.size(); }
+
+    public int getFailedFileCount() {
+        int count = 0;
+        for (ParseResult result : results) {
+            if (result.hasErrors()) count++;
+        }
+        return count;
+    }
+
+    public int getErrorCount() {
+        int count = 0;
+        for (ParseResult result : results) {
+            count += result.getErrors().size();
+        }
+        return count;
+    }
+
+    public int getWarningCount() {
+        int count = 0;
+        for (ParseResult result : results) {
+            count += result.getWarnings().size();
+        }
+        return count;
+    }
+
+    public long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+}
@@ -0,0 +1,170 @@
+import model.YangModule;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * YangParser with a content-addressed result cache in front of it.
+ *
+ * Entries are keyed by SHA-256 of the file bytes plus PARSER_VERSION, so an
+ * edited file or a parser upgrade never returns a stale tree. Lookups go to
+ * an in-memory LRU first, then to an optional on-disk directory of
+ * serialized results; only a miss in both tiers runs the lexer.
+ *
+ * The cache keeps the modules as parsed; every caller gets its own copy
+ * (YangModule.copy()), so callers such as ModuleRegistry may expand and
+ * patch what they get. Disk entries are read through an ObjectInputFilter
+ * that only admits the model and diagnostic classes and the JDK classes
+ * they are built from.
+ */
+public class CachingYangParser extends YangParser {
+    private static final int DEFAULT_MEMORY_ENTRIES = 256;
+
+    private static final ObjectInputFilter DISK_FILTER = ObjectInputFilter.Config.createFilter(
+            "model.*;Diagnostic;Diagnostic$Severity;java.lang.String;java.lang.Enum;java.lang.Object;"
+            + "java.util.ArrayList;java.util.Arrays$ArrayList;java.util.Collections$Unmodifiable*;"
+            + "java.util.LinkedHashMap;java.util.HashMap;java.util.Map$Entry;!*");
+
+    private final Map<String, ParseResult> memory;
+    private final Path cacheDir;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public CachingYangParser(Path cacheDir) {
+        this(DEFAULT_MEMORY_ENTRIES, cacheDir);
+    }
+
+    /**
+     * @param maxMemoryEntries size of the in-memory LRU tier
+     * @param cacheDir directory for the on-disk tier, or null for memory only
+     */
+    public CachingYangParser(int maxMemoryEntries, Path cacheDir) {
+        this.memory = new LinkedHashMap<String, ParseResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParseResult> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+        this.cacheDir = cacheDir;
+    }
+
+    @Override
+    public ParseResult parse(String filePath) throws IOException {
+        byte[] content = Files.readAllBytes(Paths.get(filePath));
+        String key = contentKey(content);
+
+        ParseResult cached;
+        synchronized (memory) {
+            cached = memory.get(key);
+        }
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return handOut(cached, filePath);
+        }
+
+        cached = readFromDisk(key);
+        if (cached != null) {
+            diskHits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            cached = parse(new YangLexer(content), filePath);
+            writeToDisk(key, cached);
+        }
+
+        synchronized (memory) {
+            memory.put(key, cached);
+        }
+        return handOut(cached, filePath);
+    }
+
+    public long getMemoryHits() { return memoryHits.get(); }
+
+    public long getDiskHits() { return diskHits.get(); }
+
+    public long getMisses() { return misses.get(); }
+
+    public String getStats() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        return String.format("Parse cache: %d hit(s) (%d memory, %d disk), %d miss(es), hit rate %.1f%%",
+                hits, memoryHits.get(), diskHits.get(), misses.get(),
+                total == 0 ? 0.0 : 100.0 * hits / total);
+    }
+
+    // A caller's own copy of a cached result, under the caller's file name
+    private static ParseResult handOut(ParseResult result, String source) {
+        YangModule module = result.getModule() == null ? null : result.getModule().copy();
+        return new ParseResult(source, module, new ArrayList<>(result.getDiagnostics()));
+    }
+
+    static String contentKey(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(("yang-parser-v" + PARSER_VERSION + "\n").getBytes(StandardCharsets.UTF_8));
+            byte[] hash = digest.digest(content);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ParseResult readFromDisk(String key) {
+        if (cacheDir == null) {
+            return null;
+        }
+        Path entry = cacheDir.resolve(key + ".ser");
+        if (!Files.exists(entry)) {
+            return null;
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            in.setObjectInputFilter(DISK_FILTER);
+            String source = (String) in.readObject();
+            YangModule module = (YangModule) in.readObject();
+            List<Diagnostic> diagnostics = (List<Diagnostic>) in.readObject();
+            return new ParseResult(source, module, diagnostics);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // Unreadable or rejected entry (e.g. from an older build) - treat as a miss
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, ParseResult result) {
+        if (cacheDir == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(cacheDir);
+            Path tmp = Files.createTempFile(cacheDir, key, ".tmp");
+            try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeObject(result.getSource());
+                out.writeObject(result.getModule());
+                out.writeObject(new ArrayList<>(result.getDiagnostics()));
+            }
+            Files.move(tmp, cacheDir.resolve(key + ".ser"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The cache is best effort; a failed write only costs a re-parse later
+        }
+    }
+}
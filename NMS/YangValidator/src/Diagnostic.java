@@ -0,0 +1,34 @@
+import java.io.Serializable;
+
+/**
+ * A single problem found while parsing a YANG file.
+ */
+public class Diagnostic implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Severity { ERROR, WARNING }
+
+    private final Severity severity;
+    private final int line;
+    private final String message;
+
+    public Diagnostic(Severity severity, int line, String message) {
+        this.severity = severity;
+        this.line = line;
+        this.message = message;
+    }
+
+    public Severity getSeverity() { return severity; }
+
+    /** 1-based source line, or 0 for file-level problems. */
+    public int getLine() { return line; }
+
+    public String getMessage() { return message; }
+
+    public boolean isError() { return severity == Severity.ERROR; }
+
+    @Override
+    public String toString() {
+        return line > 0 ? "Line " + line + ": " + message : message;
+    }
+}
@@ -0,0 +1,315 @@
+import model.YangModule;
+import model.YangNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Replaces "uses" nodes with the body of the grouping they name.
+ *
+ * Each grouping body is expanded once and then shared: every plain uses of
+ * it links the same YangNode instances into the tree (YangNode has no
+ * parent pointer, so a subtree can hang below several parents). A uses
+ * with refine or augment statements gets a copy of only the nodes on the
+ * path to each target; everything else stays shared. Those results are
+ * memoized per grouping and refine/augment content, so identical
+ * refinements are built once too. Shared nodes must be treated as
+ * read-only; callers that edit the tree copy the path first.
+ *
+ * "prefix:name" refers to a grouping of an imported module, fetched
+ * through YangModule.getModuleForPrefix(); its nodes are marked with that
+ * module so their types resolve there. Uses that cannot be resolved stay
+ * in the tree as "uses" nodes.
+ *
+ * Groupings defined inside other statements are not on the module; the
+ * tree builder resolves the uses that name them and passes that mapping
+ * to expand().
+ */
+public class GroupingExpander {
+    private final boolean share;
+    private final boolean reportMissingImports;
+
+    private final Map<YangNode, List<YangNode>> bodies = new IdentityHashMap<>();
+    private final Map<YangNode, Map<String, List<YangNode>>> refinedBodies = new IdentityHashMap<>();
+    private final Set<YangNode> expanding = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Nodes whose subtree has already been searched for uses
+    private final Set<YangNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Map<YangNode, YangNode> scopedGroupings = Collections.emptyMap();
+    private final Set<YangModule> groupingModules = Collections.newSetFromMap(new IdentityHashMap<>());
+    private BiConsumer<YangNode, String> problems = (uses, message) -> {};
+
+    private int usesExpanded;
+    private int reused;
+    private int nodesCopied;
+
+    public GroupingExpander() {
+        this(true, true);
+    }
+
+    /**
+     * @param share link grouping bodies into the tree instead of copying them per uses
+     * @param reportMissingImports report uses whose imported module is unavailable;
+     *        off while parsing, when imports are not loaded yet
+     */
+    public GroupingExpander(boolean share, boolean reportMissingImports) {
+        this.share = share;
+        this.reportMissingImports = reportMissingImports;
+    }
+
+    /**
+     * Expands every uses in module's data tree and top-level augments.
+     * problems receives the uses node and a message for each grouping that
+     * cannot be expanded.
+     */
+    public void expand(YangModule module, BiConsumer<YangNode, String> problems) {
+        expand(module, Collections.emptyMap(), problems);
+    }
+
+    /**
+     * Like expand(module, problems), with scopedGroupings giving the nested
+     * grouping that a uses names, where that is not a module grouping.
+     * Since that mapping is not kept, the bodies of the module's groupings
+     * are expanded too when it is not empty, so that no uses depending on it
+     * are left for a later expansion from an importing module.
+     */
+    public void expand(YangModule module, Map<YangNode, YangNode> scopedGroupings,
+                       BiConsumer<YangNode, String> problems) {
+        this.problems = problems;
+        this.scopedGroupings = scopedGroupings;
+        if (expandSiblings(module.getNodes(), module)) {
+            module.invalidateSchemaIndex();
+        }
+        for (YangNode augment : module.getAugments()) {
+            expandSiblings(augment.getChildren(), module);
+        }
+        if (!scopedGroupings.isEmpty()) {
+            for (YangNode grouping : module.getGroupings().values()) {
+                if (!bodies.containsKey(grouping)) {
+                    body(grouping, module, module);
+                }
+            }
+        }
+    }
+
+    // Returns true if anything below was changed
+    private boolean expandSiblings(List<YangNode> siblings, YangModule module) {
+        boolean changed = false;
+        for (YangNode node : siblings) {
+            if ("uses".equals(node.getType())) {
+                changed = true;
+                break;
+            }
+        }
+        if (changed) {
+            List<YangNode> expanded = new ArrayList<>(siblings.size());
+            for (YangNode node : siblings) {
+                List<YangNode> body = "uses".equals(node.getType()) ? expandUses(node, module) : null;
+                if (body != null) {
+                    expanded.addAll(body);
+                } else {
+                    expanded.add(node);
+                }
+            }
+            siblings.clear();
+            siblings.addAll(expanded);
+        }
+
+        for (YangNode node : siblings) {
+            if (!"uses".equals(node.getType()) && visited.add(node)) {
+                changed |= expandSiblings(node.getChildren(), module);
+            }
+        }
+        return changed;
+    }
+
+    private List<YangNode> expandUses(YangNode uses, YangModule module) {
+        String reference = uses.getName();
+        int colon = reference.indexOf(':');
+        String name = colon >= 0 ? reference.substring(colon + 1) : reference;
+        YangModule owner = colon >= 0 ? module.getModuleForPrefix(reference.substring(0, colon)) : module;
+        if (owner == null) {
+            if (reportMissingImports || !module.getImportPrefixes().containsKey(reference.substring(0, colon))) {
+                problems.accept(uses, "Grouping '" + reference + "' not found: unknown or unavailable module prefix");
+            }
+            return null;
+        }
+        YangNode grouping = scopedGroupings.get(uses);
+        if (grouping == null) {
+            grouping = owner.getGrouping(name);
+        }
+        if (grouping == null) {
+            problems.accept(uses, "Grouping '" + reference + "' not found");
+            return null;
+        }
+
+        List<YangNode> body = bodies.get(grouping);
+        boolean bodyCached = body != null;
+        if (!bodyCached) {
+            body = body(grouping, owner, module);
+            if (body == null) {
+                problems.accept(uses, "Grouping '" + reference + "' is used inside itself");
+                return null;
+            }
+        }
+        usesExpanded++;
+
+        List<YangNode> refinements = uses.getChildren();
+        if (refinements.isEmpty()) {
+            if (!share) {
+                return deepCopy(body);
+            }
+            if (bodyCached) {
+                reused++;
+            }
+            return body;
+        }
+
+        String context = null;
+        if (share) {
+            StringBuilder signature = new StringBuilder();
+            for (YangNode refinement : refinements) {
+                describe(refinement, signature);
+            }
+            context = signature.toString();
+            List<YangNode> memoized = refinedBodies.getOrDefault(grouping, Collections.emptyMap()).get(context);
+            if (memoized != null) {
+                reused++;
+                return memoized;
+            }
+        }
+
+        List<YangNode> result = share ? new ArrayList<>(body) : deepCopy(body);
+        Set<YangNode> copied = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (YangNode refinement : refinements) {
+            YangNode target = copyPath(result, refinement.getName(), copied);
+            if (target == null) {
+                problems.accept(uses, "Cannot " + refinement.getType() + " '" + refinement.getName()
+                        + "' in grouping '" + reference + "': no such node");
+            } else if ("refine".equals(refinement.getType())) {
+                refine(target, refinement);
+            } else if ("augment".equals(refinement.getType())) {
+                // Nodes added by the augment belong to the using module
+                expandSiblings(refinement.getChildren(), module);
+                target.getChildren().addAll(refinement.getChildren());
+            }
+        }
+        if (share) {
+            refinedBodies.computeIfAbsent(grouping, g -> new HashMap<>()).put(context, result);
+        }
+        return result;
+    }
+
+    // Expands the uses inside grouping once; null if it is already being expanded
+    private List<YangNode> body(YangNode grouping, YangModule owner, YangModule module) {
+        if (!expanding.add(grouping)) {
+            return null;
+        }
+        expandSiblings(grouping.getChildren(), owner);
+        expanding.remove(grouping);
+        List<YangNode> body = grouping.getChildren();
+        if (owner != module) {
+            markDefiningModule(body, owner);
+            groupingModules.add(owner);
+        }
+        bodies.put(grouping, body);
+        return body;
+    }
+
+    // Type names in a grouping refer to the typedefs and prefixes of the module defining it
+    private static void markDefiningModule(List<YangNode> nodes, YangModule owner) {
+        for (YangNode node : nodes) {
+            if (node.getDefiningModule() == null) {
+                node.setDefiningModule(owner);
+                markDefiningModule(node.getChildren(), owner);
+            }
+        }
+    }
+
+    private static void refine(YangNode target, YangNode refinement) {
+        if (refinement.getDescription() != null) {
+            target.setDescription(refinement.getDescription());
+        }
+        for (YangNode statement : refinement.getChildren()) {
+            if ("mandatory".equals(statement.getType())) {
+                target.setMandatory("true".equals(statement.getName()));
+            }
+        }
+    }
+
+    /**
+     * Finds the node at a descendant path such as "config/mtu" below roots,
+     * replacing every shared node on the way with a private copy, and
+     * returns the copied target.
+     */
+    private YangNode copyPath(List<YangNode> roots, String path, Set<YangNode> copied) {
+        List<YangNode> siblings = roots;
+        YangNode node = null;
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            String name = segment.substring(segment.indexOf(':') + 1);
+            int index = -1;
+            for (int i = 0; i < siblings.size(); i++) {
+                if (name.equals(siblings.get(i).getName()) && !"uses".equals(siblings.get(i).getType())) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return null;
+            }
+            node = siblings.get(index);
+            if (share && !copied.contains(node)) {
+                node = node.shallowCopy();
+                copied.add(node);
+                siblings.set(index, node);
+                nodesCopied++;
+            }
+            siblings = node.getChildren();
+        }
+        return node;
+    }
+
+    private List<YangNode> deepCopy(List<YangNode> nodes) {
+        List<YangNode> copies = new ArrayList<>(nodes.size());
+        for (YangNode node : nodes) {
+            YangNode copy = node.shallowCopy();
+            nodesCopied++;
+            List<YangNode> children = deepCopy(node.getChildren());
+            copy.getChildren().clear();
+            copy.getChildren().addAll(children);
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    private static void describe(YangNode node, StringBuilder out) {
+        out.append('(').append(node.getType()).append(' ').append(node.getName())
+           .append(' ').append(node.getDataType()).append(' ').append(node.isMandatory())
+           .append(' ').append(node.getKeys()).append(' ').append(node.getRange())
+           .append(' ').append(node.getLength()).append(' ').append(node.getPatterns())
+           .append(' ').append(node.getDescription());
+        for (YangNode child : node.getChildren()) {
+            describe(child, out);
+        }
+        out.append(')');
+    }
+
+    /** Other modules whose grouping bodies have been linked into the expanded modules. */
+    public Set<YangModule> getGroupingModules() { return groupingModules; }
+
+    /** Uses statements replaced so far. */
+    public int getUsesExpanded() { return usesExpanded; }
+
+    /** Expansions served from an already expanded grouping body. */
+    public int getReused() { return reused; }
+
+    /** Nodes copied for refine/augment paths (or for every uses when not sharing). */
+    public int getNodesCopied() { return nodesCopied; }
+}
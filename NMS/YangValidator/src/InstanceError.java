@@ -0,0 +1,31 @@
+/**
+ * A problem found in instance data, located by its instance path
+ * (e.g. "/example:interfaces/interface[3]/mtu").
+ */
+public class InstanceError {
+    private final String path;
+    private final String message;
+    private final long offset;
+
+    public InstanceError(String path, String message) {
+        this(path, message, -1);
+    }
+
+    public InstanceError(String path, String message, long offset) {
+        this.path = path;
+        this.message = message;
+        this.offset = offset;
+    }
+
+    public String getPath() { return path; }
+
+    public String getMessage() { return message; }
+
+    /** Byte offset of the offending value in the input, or -1 if unknown. */
+    public long getOffset() { return offset; }
+
+    @Override
+    public String toString() {
+        return (path.isEmpty() ? "/" : path) + ": " + message + (offset >= 0 ? " (byte " + offset + ")" : "");
+    }
+}
@@ -0,0 +1,526 @@
+import model.ResolvedType;
+import model.YangModule;
+import model.YangNode;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Validates RFC 7951 JSON instance data against a parsed YangModule.
+ *
+ * The schema is compiled once in the constructor into SchemaNodes with
+ * per-node member maps (holding both "name" and "module:name"), the
+ * mandatory leaves and list keys as arrays, and the leaf type as a
+ * TypeChecker. Validating a document therefore never walks the YangNode
+ * tree or builds strings; instance paths are only assembled when an error
+ * is reported. Instances are immutable and can be shared across threads.
+ *
+ * Lists with more than PARALLEL_THRESHOLD entries are split into chunks
+ * validated on a ForkJoin pool. Each chunk collects its own errors and
+ * first-seen keys; chunks are then merged in index order, so errors and
+ * duplicate-key reports come out exactly as a sequential pass would
+ * produce them. Keys are compared as KeyFingerprints in LongIntHashMaps,
+ * with the actual values only compared when two fingerprints match.
+ */
+public class InstanceValidator {
+    static final int CONTAINER = 0;
+    static final int LIST = 1;
+    static final int LEAF = 2;
+    static final int LEAF_LIST = 3;
+
+    /** Compiled form of one schema node. */
+    static final class SchemaNode {
+        final String name;
+        final String qualifiedName; // "module:name"
+        final int kind;
+        final TypeChecker checker;
+        final boolean emptyType; // "empty" is encoded as [null], not a scalar
+        final Map<String, SchemaNode> members = new HashMap<>();
+        SchemaNode[] mandatory = new SchemaNode[0];
+        SchemaNode[] keyNodes = new SchemaNode[0]; // key leaves present in the schema
+
+        SchemaNode(String name, String qualifiedName, int kind, TypeChecker checker, boolean emptyType) {
+            this.name = name;
+            this.qualifiedName = qualifiedName;
+            this.kind = kind;
+            this.checker = checker;
+            this.emptyType = emptyType;
+        }
+    }
+
+    // Lists longer than this are validated in parallel, CHUNK_SIZE entries per task
+    static final int PARALLEL_THRESHOLD = 4096;
+    static final int CHUNK_SIZE = 1024;
+
+    private final String moduleName;
+    private final SchemaNode root;
+    private final Map<YangNode, SchemaNode> compiledNodes = new IdentityHashMap<>();
+    private final YangModule module;
+    // Leaves of the same typedef without restrictions of their own share one checker
+    private final Map<ResolvedType, TypeChecker> typedefCheckers = new IdentityHashMap<>();
+    private final ForkJoinPool pool;
+
+    public InstanceValidator(YangModule module) {
+        this(module, ForkJoinPool.commonPool());
+    }
+
+    public InstanceValidator(YangModule module, ForkJoinPool pool) {
+        this.pool = pool;
+        this.module = module;
+        this.moduleName = module.getName();
+        this.root = new SchemaNode("", "", CONTAINER, null, false);
+        compileChildren(root, module.getNodes());
+    }
+
+    private void compileChildren(SchemaNode parent, List<YangNode> children) {
+        List<SchemaNode> mandatory = new ArrayList<>();
+        for (YangNode child : children) {
+            // Subtrees shared through a grouping compile once
+            SchemaNode compiled = compiledNodes.get(child);
+            if (compiled == null) {
+                compiled = compile(child);
+            }
+
+            parent.members.putIfAbsent(child.getName(), compiled);
+            parent.members.putIfAbsent(compiled.qualifiedName, compiled);
+            if (child.getDefiningModule() != null) {
+                // Nodes added by another module's augment are qualified with that module's name
+                parent.members.putIfAbsent(child.getDefiningModule().getName() + ":" + child.getName(), compiled);
+            }
+            if (child.isMandatory() && compiled.kind == LEAF) {
+                mandatory.add(compiled);
+            }
+        }
+        parent.mandatory = mandatory.toArray(new SchemaNode[0]);
+    }
+
+    private SchemaNode compile(YangNode node) {
+        int kind = kindOf(node.getType());
+        TypeChecker checker = null;
+        boolean empty = "empty".equals(node.getDataType());
+        if (kind == LEAF || kind == LEAF_LIST) {
+            YangModule typeModule = node.getDefiningModule() != null ? node.getDefiningModule() : module;
+            ResolvedType typedef = node.getScopedTypedef() != null
+                    ? typeModule.getTypeResolver().resolveScoped(node.getScopedTypedef())
+                    : typeModule.resolveType(node.getDataType());
+            if (typedef == null) {
+                checker = TypeCheckers.compile(node);
+            } else if (node.getRange() == null && node.getLength() == null && node.getPatterns().isEmpty()) {
+                checker = typedefCheckers.computeIfAbsent(typedef, t -> TypeCheckers.compile(node, t));
+            } else {
+                checker = TypeCheckers.compile(node, typedef);
+            }
+            empty |= typedef != null && "empty".equals(typedef.getBaseType());
+        }
+        SchemaNode compiled = new SchemaNode(node.getName(), moduleName + ":" + node.getName(), kind, checker, empty);
+        compiledNodes.put(node, compiled);
+        compileChildren(compiled, node.getChildren());
+        List<SchemaNode> keyNodes = new ArrayList<>();
+        for (String key : node.getKeys()) {
+            SchemaNode keyNode = compiled.members.get(key);
+            if (keyNode != null) {
+                keyNodes.add(keyNode);
+            }
+        }
+        compiled.keyNodes = keyNodes.toArray(new SchemaNode[0]);
+        return compiled;
+    }
+
+    public String getModuleName() { return moduleName; }
+
+    SchemaNode root() { return root; }
+
+    public List<InstanceError> validate(String json) {
+        return validate(new JSONObject(json));
+    }
+
+    public List<InstanceError> validate(JSONObject document) {
+        Walk walk = new Walk();
+        validateMembers(document, root, walk);
+        return walk.errors;
+    }
+
+    /**
+     * Validates value as the data of a single schema node of this module,
+     * such as one telemetry update. For a list node with entry set, value
+     * is one list entry rather than the whole array. Reported paths start
+     * with path.
+     */
+    public List<InstanceError> validateNode(YangNode node, Object value, boolean entry, String path) {
+        SchemaNode schema = compiledNodes.get(node);
+        if (schema == null) {
+            throw new IllegalArgumentException("Node is not part of module " + moduleName + ": " + node.getName());
+        }
+        Walk walk = new Walk();
+        walk.push(path.startsWith("/") ? path.substring(1) : path, -1);
+        if (entry && schema.kind == LIST) {
+            if (value instanceof JSONObject) {
+                validateListEntry((JSONObject) value, schema, walk);
+            } else {
+                walk.error("Expected an object for entry of list '" + schema.name + "'");
+            }
+        } else {
+            validateValue(value, schema, walk);
+        }
+        return walk.errors;
+    }
+
+    private void validateMembers(JSONObject object, SchemaNode parent, Walk walk) {
+        for (String member : object.keySet()) {
+            SchemaNode schema = parent.members.get(member);
+            walk.push(member, -1);
+            if (schema == null) {
+                walk.error("Unknown element '" + member + "'");
+            } else {
+                validateValue(object.opt(member), schema, walk);
+            }
+            walk.pop();
+        }
+
+        for (SchemaNode required : parent.mandatory) {
+            if (!has(object, required)) {
+                walk.error(missingMandatoryMessage(required));
+            }
+        }
+    }
+
+    private void validateValue(Object value, SchemaNode schema, Walk walk) {
+        switch (schema.kind) {
+            case CONTAINER:
+                if (value instanceof JSONObject) {
+                    validateMembers((JSONObject) value, schema, walk);
+                } else {
+                    walk.error("Expected an object for container '" + schema.name + "'");
+                }
+                break;
+            case LIST:
+                if (!(value instanceof JSONArray)) {
+                    walk.error("Expected an array for list '" + schema.name + "'");
+                    break;
+                }
+                validateList((JSONArray) value, schema, walk);
+                break;
+            case LEAF_LIST:
+                if (!(value instanceof JSONArray)) {
+                    walk.error("Expected an array for leaf-list '" + schema.name + "'");
+                    break;
+                }
+                JSONArray items = (JSONArray) value;
+                for (int i = 0; i < items.length(); i++) {
+                    walk.index(i);
+                    checkLeafValue(items.opt(i), schema, walk);
+                }
+                walk.index(-1);
+                break;
+            default:
+                checkLeafValue(value, schema, walk);
+                break;
+        }
+    }
+
+    private void validateList(JSONArray entries, SchemaNode list, Walk walk) {
+        int length = entries.length();
+        int chunkCount = length > PARALLEL_THRESHOLD ? (length + CHUNK_SIZE - 1) / CHUNK_SIZE : 1;
+        Chunk[] chunks = new Chunk[chunkCount];
+        if (chunkCount == 1) {
+            chunks[0] = validateChunk(entries, 0, length, list, walk.fork());
+        } else {
+            ChunkTask task = new ChunkTask(entries, list, walk, chunks, 0, chunkCount);
+            if (ForkJoinTask.inForkJoinPool()) {
+                task.invoke();
+            } else {
+                pool.invoke(task);
+            }
+        }
+
+        // Merge in index order: a chunk's first-seen keys are checked against
+        // all earlier chunks; its own repeats were already found in parallel
+        LongIntHashMap firstIndex = new LongIntHashMap(length);
+        List<int[]> duplicates = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            walk.addAll(chunk.walk);
+            for (int i = 0; i < chunk.keyCount; i++) {
+                int first = firstIndex.putIfAbsent(chunk.keys[i], chunk.keyIndexes[i]);
+                if (first != LongIntHashMap.ABSENT) {
+                    addDuplicate(duplicates, entries, list, chunk.keyIndexes[i], first);
+                }
+            }
+            for (int i = 0; i < chunk.repeatCount; i++) {
+                addDuplicate(duplicates, entries, list, chunk.repeatIndexes[i], firstIndex.get(chunk.repeatKeys[i]));
+            }
+        }
+        duplicates.sort((x, y) -> Integer.compare(x[0], y[0]));
+        for (int[] duplicate : duplicates) {
+            walk.index(duplicate[0]);
+            walk.error(duplicateKeyMessage(list, duplicate[1]));
+        }
+        walk.index(-1);
+    }
+
+    // Confirms a fingerprint match on the actual values before reporting it
+    private void addDuplicate(List<int[]> duplicates, JSONArray entries, SchemaNode list, int index, int first) {
+        if (sameKey(entries.optJSONObject(index), entries.optJSONObject(first), list)) {
+            duplicates.add(new int[] {index, first});
+        }
+    }
+
+    // Validates entries [from, to) into the forked walk and records each entry's key
+    private Chunk validateChunk(JSONArray entries, int from, int to, SchemaNode list, Walk walk) {
+        Chunk chunk = new Chunk(walk, list.keyNodes.length > 0 ? to - from : 0);
+        for (int i = from; i < to; i++) {
+            walk.index(i);
+            Object entry = entries.opt(i);
+            if (!(entry instanceof JSONObject)) {
+                walk.error("Expected an object for entry of list '" + list.name + "'");
+                continue;
+            }
+            validateListEntry((JSONObject) entry, list, walk);
+
+            // Entries missing a key leaf were reported above and take no part in uniqueness
+            long fingerprint = 0;
+            boolean complete = list.keyNodes.length > 0;
+            for (int k = 0; k < list.keyNodes.length && complete; k++) {
+                Object value = member((JSONObject) entry, list.keyNodes[k]);
+                if (value == null) {
+                    complete = false;
+                } else {
+                    fingerprint = KeyFingerprint.add(fingerprint, k, value);
+                }
+            }
+            if (complete) {
+                chunk.addKey(fingerprint, i);
+            }
+        }
+        walk.index(-1);
+        return chunk;
+    }
+
+    private static Object member(JSONObject object, SchemaNode node) {
+        Object value = object.opt(node.name);
+        return value != null ? value : object.opt(node.qualifiedName);
+    }
+
+    private static boolean sameKey(JSONObject a, JSONObject b, SchemaNode list) {
+        if (a == null || b == null) {
+            return false;
+        }
+        for (SchemaNode keyNode : list.keyNodes) {
+            Object x = member(a, keyNode);
+            Object y = member(b, keyNode);
+            if (x instanceof Number && y instanceof Number && !(x instanceof Double || y instanceof Double)) {
+                if (new BigDecimal(x.toString()).compareTo(new BigDecimal(y.toString())) != 0) {
+                    return false;
+                }
+            } else if (x == null || !x.equals(y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Errors and key fingerprints of one contiguous run of list entries:
+     * first-seen fingerprints in index order, and the entries repeating
+     * one of them within the run.
+     */
+    private static final class Chunk {
+        final Walk walk;
+        final long[] keys;
+        final int[] keyIndexes;
+        int keyCount;
+        long[] repeatKeys = new long[0];
+        int[] repeatIndexes = new int[0];
+        int repeatCount;
+        private final LongIntHashMap seen;
+
+        Chunk(Walk walk, int capacity) {
+            this.walk = walk;
+            this.keys = new long[capacity];
+            this.keyIndexes = new int[capacity];
+            this.seen = new LongIntHashMap(capacity);
+        }
+
+        void addKey(long fingerprint, int index) {
+            if (seen.putIfAbsent(fingerprint, index) == LongIntHashMap.ABSENT) {
+                keys[keyCount] = fingerprint;
+                keyIndexes[keyCount++] = index;
+            } else {
+                if (repeatCount == repeatKeys.length) {
+                    repeatKeys = Arrays.copyOf(repeatKeys, Math.max(8, repeatCount * 2));
+                    repeatIndexes = Arrays.copyOf(repeatIndexes, repeatKeys.length);
+                }
+                repeatKeys[repeatCount] = fingerprint;
+                repeatIndexes[repeatCount++] = index;
+            }
+        }
+    }
+
+    private class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final JSONArray entries;
+        private final SchemaNode list;
+        private final Walk walk;
+        private final Chunk[] chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(JSONArray entries, SchemaNode list, Walk walk, Chunk[] chunks, int from, int to) {
+            this.entries = entries;
+            this.list = list;
+            this.walk = walk;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                int start = from * CHUNK_SIZE;
+                chunks[from] = validateChunk(entries, start, Math.min(start + CHUNK_SIZE, entries.length()),
+                        list, walk.fork());
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ChunkTask(entries, list, walk, chunks, from, mid),
+                      new ChunkTask(entries, list, walk, chunks, mid, to));
+        }
+    }
+
+    private void validateListEntry(JSONObject entry, SchemaNode list, Walk walk) {
+        validateMembers(entry, list, walk);
+        for (SchemaNode key : list.keyNodes) {
+            if (!has(entry, key)) {
+                walk.error(missingKeyMessage(key, list));
+            }
+        }
+    }
+
+    private static boolean has(JSONObject object, SchemaNode node) {
+        return object.has(node.name) || object.has(node.qualifiedName);
+    }
+
+    private void checkLeafValue(Object value, SchemaNode schema, Walk walk) {
+        if (value instanceof JSONObject || value instanceof JSONArray && !schema.emptyType) {
+            walk.error("Expected a scalar value for '" + schema.name + "'");
+            return;
+        }
+        if (!schema.checker.check(value)) {
+            walk.error(schema.emptyType ? invalidEmptyMessage(schema) : invalidValueMessage(value, schema));
+        }
+    }
+
+    static String missingMandatoryMessage(SchemaNode leaf) {
+        return "Missing mandatory leaf '" + leaf.name + "'";
+    }
+
+    static String missingKeyMessage(SchemaNode key, SchemaNode list) {
+        return "Missing key leaf '" + key.name + "' in list '" + list.name + "'";
+    }
+
+    static String duplicateKeyMessage(SchemaNode list, int firstIndex) {
+        return "Duplicate key in list '" + list.name + "' (same as entry " + firstIndex + ")";
+    }
+
+    static String invalidEmptyMessage(SchemaNode leaf) {
+        return "Value is not a valid " + leaf.checker.describe() + " (expected [null])";
+    }
+
+    static String invalidValueMessage(Object value, SchemaNode leaf) {
+        return "Value " + JSONObject.valueToString(value) + " is not a valid " + leaf.checker.describe();
+    }
+
+    static int kindOf(String type) {
+        switch (type) {
+            case "list": return LIST;
+            case "leaf": return LEAF;
+            case "leaf-list": return LEAF_LIST;
+            default: return CONTAINER;
+        }
+    }
+
+    /**
+     * Per-document state: reported errors and the current instance path,
+     * kept as parallel arrays and only joined into a String for an error.
+     */
+    static final class Walk {
+        final List<InstanceError> errors = new ArrayList<>();
+        private final Consumer<InstanceError> sink;
+        private long errorCount;
+        private String[] names = new String[16];
+        private int[] indexes = new int[16];
+        private int depth;
+
+        Walk() {
+            this.sink = errors::add;
+        }
+
+        Walk(Consumer<InstanceError> sink) {
+            this.sink = sink;
+        }
+
+        /** A new walk at the same path that buffers its own errors. */
+        Walk fork() {
+            Walk fork = new Walk();
+            fork.names = Arrays.copyOf(names, names.length);
+            fork.indexes = Arrays.copyOf(indexes, indexes.length);
+            fork.depth = depth;
+            return fork;
+        }
+
+        /** Reports the errors buffered by a fork, in order. */
+        void addAll(Walk fork) {
+            for (InstanceError error : fork.errors) {
+                errorCount++;
+                sink.accept(error);
+            }
+        }
+
+        void push(String name, int index) {
+            if (depth == names.length) {
+                names = Arrays.copyOf(names, depth * 2);
+                indexes = Arrays.copyOf(indexes, depth * 2);
+            }
+            names[depth] = name;
+            indexes[depth] = index;
+            depth++;
+        }
+
+        void index(int index) {
+            indexes[depth - 1] = index;
+        }
+
+        void pop() {
+            depth--;
+        }
+
+        void error(String message) {
+            error(message, -1);
+        }
+
+        void error(String message, long offset) {
+            StringBuilder path = new StringBuilder();
+            for (int i = 0; i < depth; i++) {
+                path.append('/').append(names[i]);
+                if (indexes[i] >= 0) {
+                    path.append('[').append(indexes[i]).append(']');
+                }
+            }
+            errorCount++;
+            sink.accept(new InstanceError(path.toString(), message, offset));
+        }
+
+        long getErrorCount() { return errorCount; }
+    }
+}
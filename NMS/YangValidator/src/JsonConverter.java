@@ -5,9 +5,23 @@ import org.json.JSONObject;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.File;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class JsonConverter {
+    // org.json keeps object members in a HashMap, so toString() emits them in
+    // hash order. Replaying the same puts into a HashMap reproduces that order.
+    private static final String[] MODULE_KEYS =
+            hashOrder("module", "namespace", "prefix", "imports", "nodes");
+    private static final String[] NODE_KEYS =
+            hashOrder("name", "type", "description", "data-type", "mandatory", "children");
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
     
+
     public JSONObject convertToJson(YangModule module) {
         try {
             JSONObject json = new JSONObject();
@@ -84,7 +98,370 @@ public class JsonConverter {
         }
     }
     
+    /**
+     * Writes module to outputPath as JSON without building a JSONObject
+     * graph or an intermediate String. The output is byte-identical to
+     * saveJsonToFile(convertToJson(module), outputPath).
+     */
+    public void saveJsonToFile(YangModule module, String outputPath) throws IOException {
+        // Ensure output directory exists
+        File outputDir = new File(outputPath).getAbsoluteFile().getParentFile();
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+        
+        try (Writer writer = new UnsyncBufferedWriter(new FileWriter(outputPath), WRITE_BUFFER_SIZE)) {
+            writeJson(module, writer, 4);
+        }
+    }
+    
+    /**
+     * Streams module as JSON in the same layout as JSONObject.toString(indentFactor).
+     */
+    public void writeJson(YangModule module, Writer writer, int indentFactor) throws IOException {
+        int length = 0;
+        for (String key : MODULE_KEYS) {
+            if (hasModuleKey(module, key)) length++;
+        }
+        int childIndent = length == 1 ? 0 : indentFactor;
+        
+        writer.write('{');
+        boolean needsComma = false;
+        for (String key : MODULE_KEYS) {
+            if (!hasModuleKey(module, key)) continue;
+            writeKey(writer, key, length, needsComma, indentFactor, childIndent);
+            needsComma = true;
+            switch (key) {
+                case "module":
+                    quote(module.getName(), writer);
+                    break;
+                case "namespace":
+                    quote(module.getNamespace(), writer);
+                    break;
+                case "prefix":
+                    quote(module.getPrefix(), writer);
+                    break;
+                case "imports":
+                    writeArray(module.getImports(), writer, indentFactor, childIndent,
+                            (imp, w, factor, indent) -> quote(imp, w));
+                    break;
+                case "nodes":
+                    writeArray(module.getNodes(), writer, indentFactor, childIndent, this::writeNode);
+                    break;
+                default:
+                    break;
+            }
+        }
+        endContainer(writer, '}', length, indentFactor, 0);
+    }
+    
+    private void writeNode(YangNode node, Writer writer, int indentFactor, int indent) throws IOException {
+        int length = 0;
+        for (String key : NODE_KEYS) {
+            if (hasNodeKey(node, key)) length++;
+        }
+        int childIndent = length == 1 ? indent : indent + indentFactor;
+        
+        writer.write('{');
+        boolean needsComma = false;
+        for (String key : NODE_KEYS) {
+            if (!hasNodeKey(node, key)) continue;
+            writeKey(writer, key, length, needsComma, indentFactor, childIndent);
+            needsComma = true;
+            switch (key) {
+                case "name":
+                    quote(node.getName(), writer);
+                    break;
+                case "type":
+                    quote(node.getType(), writer);
+                    break;
+                case "description":
+                    quote(node.getDescription(), writer);
+                    break;
+                case "data-type":
+                    quote(node.getDataType(), writer);
+                    break;
+                case "mandatory":
+                    writer.write(node.isMandatory() ? "true" : "false");
+                    break;
+                case "children":
+                    writeArray(node.getChildren(), writer, indentFactor, childIndent, this::writeNode);
+                    break;
+                default:
+                    break;
+            }
+        }
+        endContainer(writer, '}', length, indentFactor, indent);
+    }
+    
+    // Mirrors the null / empty checks in convertToJson
+    private static boolean hasModuleKey(YangModule module, String key) {
+        switch (key) {
+            case "module": return module.getName() != null;
+            case "namespace": return module.getNamespace() != null;
+            case "prefix": return module.getPrefix() != null;
+            case "imports": return !module.getImports().isEmpty();
+            default: return true;
+        }
+    }
+    
+    private static boolean hasNodeKey(YangNode node, String key) {
+        switch (key) {
+            case "name": return node.getName() != null;
+            case "type": return node.getType() != null;
+            case "description": return node.getDescription() != null && !node.getDescription().isEmpty();
+            case "data-type": return node.getDataType() != null && !node.getDataType().isEmpty();
+            case "children": return !node.getChildren().isEmpty();
+            default: return true;
+        }
+    }
+    
+    private interface ElementWriter<T> {
+        void write(T element, Writer writer, int indentFactor, int indent) throws IOException;
+    }
+    
+    private static <T> void writeArray(List<T> items, Writer writer, int indentFactor, int indent,
+                                       ElementWriter<T> elementWriter) throws IOException {
+        int length = items.size();
+        writer.write('[');
+        if (length == 1) {
+            elementWriter.write(items.get(0), writer, indentFactor, indent);
+        } else if (length != 0) {
+            int newIndent = indent + indentFactor;
+            boolean needsComma = false;
+            for (T item : items) {
+                if (needsComma) writer.write(',');
+                if (indentFactor > 0) writer.write('\n');
+                indent(writer, newIndent);
+                elementWriter.write(item, writer, indentFactor, newIndent);
+                needsComma = true;
+            }
+        }
+        endContainer(writer, ']', length, indentFactor, indent);
+    }
+    
+    private static void writeKey(Writer writer, String key, int length, boolean needsComma,
+                                 int indentFactor, int indent) throws IOException {
+        if (length > 1) {
+            if (needsComma) writer.write(',');
+            if (indentFactor > 0) writer.write('\n');
+            indent(writer, indent);
+        }
+        quote(key, writer);
+        writer.write(':');
+        if (indentFactor > 0) writer.write(' ');
+    }
+    
+    private static void endContainer(Writer writer, char close, int length, int indentFactor, int indent) throws IOException {
+        if (length > 1) {
+            if (indentFactor > 0) writer.write('\n');
+            indent(writer, indent);
+        }
+        writer.write(close);
+    }
+    
+    private static void indent(Writer writer, int indent) throws IOException {
+        for (int i = 0; i < indent; i++) {
+            writer.write(' ');
+        }
+    }
+    
+    // Same escaping rules as JSONObject.quote
+    private static void quote(String string, Writer w) throws IOException {
+        if (string == null || string.isEmpty()) {
+            w.write("\"\"");
+            return;
+        }
+        char b;
+        char c = 0;
+        int run = 0; // start of the pending run of characters that need no escaping
+        w.write('"');
+        for (int i = 0; i < string.length(); i++) {
+            b = c;
+            c = string.charAt(i);
+            if (c >= ' ' && c != '\\' && c != '"' && c != '/' && c < '\u0080') {
+                continue;
+            }
+            if (c == '/' && b != '<') {
+                continue;
+            }
+            if (c >= '\u00a0' && (c < '\u2000' || c >= '\u2100')) {
+                continue;
+            }
+            w.write(string, run, i - run);
+            run = i + 1;
+            switch (c) {
+                case '\\':
+                case '"':
+                    w.write('\\');
+                    w.write(c);
+                    break;
+                case '/':
+                    if (b == '<') {
+                        w.write('\\');
+                    }
+                    w.write(c);
+                    break;
+                case '\b':
+                    w.write("\\b");
+                    break;
+                case '\t':
+                    w.write("\\t");
+                    break;
+                case '\n':
+                    w.write("\\n");
+                    break;
+                case '\f':
+                    w.write("\\f");
+                    break;
+                case '\r':
+                    w.write("\\r");
+                    break;
+                default:
+                    if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                        String hhhh = Integer.toHexString(c);
+                        w.write("\\u");
+                        w.write("0000", 0, 4 - hhhh.length());
+                        w.write(hhhh);
+                    } else {
+                        w.write(c);
+                    }
+            }
+        }
+        w.write(string, run, string.length() - run);
+        w.write('"');
+    }
+    
+    private static String[] hashOrder(String... keys) {
+        Map<String, Boolean> map = new HashMap<>();
+        for (String key : keys) {
+            map.put(key, Boolean.TRUE);
+        }
+        return map.keySet().toArray(new String[0]);
+    }
+    
+    /**
+     * Returns the first maxChars characters of the JSON form of module.
+     * Conversion stops as soon as they are written, so the cost depends on
+     * maxChars rather than on the size of the module.
+     */
+    public String previewJson(YangModule module, int indentFactor, int maxChars) {
+        PreviewWriter writer = new PreviewWriter(maxChars);
+        try {
+            writeJson(module, writer, indentFactor);
+        } catch (PreviewFull e) {
+            // Enough output for the preview
+        } catch (IOException e) {
+            throw new RuntimeException("Error converting to JSON: " + e.getMessage(), e);
+        }
+        return writer.toString();
+    }
+    
+    // BufferedWriter takes a lock on every write(char); the converter issues
+    // millions of tiny writes from a single thread, so buffer without one.
+    private static class UnsyncBufferedWriter extends Writer {
+        private final Writer out;
+        private final char[] buf;
+        private int count;
+        
+        UnsyncBufferedWriter(Writer out, int size) {
+            this.out = out;
+            this.buf = new char[size];
+        }
+        
+        @Override
+        public void write(int c) throws IOException {
+            if (count == buf.length) flushBuffer();
+            buf[count++] = (char) c;
+        }
+        
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buf.length) flushBuffer();
+                int n = Math.min(len, buf.length - count);
+                str.getChars(off, off + n, buf, count);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buf.length) flushBuffer();
+                int n = Math.min(len, buf.length - count);
+                System.arraycopy(cbuf, off, buf, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+        
+        private void flushBuffer() throws IOException {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBuffer();
+            } finally {
+                out.close();
+            }
+        }
+    }
+    
+    // Thrown by PreviewWriter to stop the conversion once the preview is full
+    private static class PreviewFull extends IOException {
+        private static final long serialVersionUID = 1L;
+    }
+    
+    // Keeps the first maxChars characters written, then aborts the writer's caller
+    private static class PreviewWriter extends Writer {
+        private final StringBuilder kept = new StringBuilder();
+        private final int maxChars;
+        
+        PreviewWriter(int maxChars) {
+            this.maxChars = maxChars;
+        }
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            int room = maxChars - kept.length();
+            kept.append(cbuf, off, Math.min(room, len));
+            if (len > room) {
+                throw new PreviewFull();
+            }
+        }
+        
+        @Override
+        public void flush() {}
+        
+        @Override
+        public void close() {}
+        
+        @Override
+        public String toString() {
+            return kept.toString();
+        }
+    }
+    
     public String convertToJsonString(YangModule module) {
-        return convertToJson(module).toString(4);
+        StringWriter writer = new StringWriter();
+        try {
+            writeJson(module, writer, 4);
+        } catch (IOException e) {
+            throw new RuntimeException("Error converting to JSON: " + e.getMessage(), e);
+        }
+        return writer.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,469 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.json.JSONObject;
+
+/**
+ * Pull tokenizer for JSON read straight from UTF-8 bytes.
+ *
+ * Only a fixed read buffer, the current token's text and a stack of open
+ * containers are held, so documents of any size can be scanned in bounded
+ * memory. Every token records the byte offset it starts at. Skipped values
+ * are scanned for structure only: their strings and numbers are not
+ * decoded, and their UTF-8 is not checked.
+ *
+ * Malformed input is reported as a SyntaxException, so callers can tell
+ * a bad document apart from a failed read.
+ */
+public class JsonStreamReader implements Closeable {
+    /** The input is not well-formed JSON. */
+    public static class SyntaxException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public SyntaxException(String message) {
+            super(message);
+        }
+    }
+
+    public static final int EOF = 0;
+    public static final int BEGIN_OBJECT = 1;
+    public static final int END_OBJECT = 2;
+    public static final int BEGIN_ARRAY = 3;
+    public static final int END_ARRAY = 4;
+    public static final int NAME = 5;
+    public static final int STRING = 6;
+    public static final int NUMBER = 7;
+    public static final int TRUE = 8;
+    public static final int FALSE = 9;
+    public static final int NULL = 10;
+
+    // What the reader expects next in the innermost open container
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_OBJECT = 2;
+    private static final int DANGLING_NAME = 3;
+    private static final int NONEMPTY_OBJECT = 4;
+    private static final int EMPTY_ARRAY = 5;
+    private static final int NONEMPTY_ARRAY = 6;
+
+    private static final int NAME_CACHE_SIZE = 256;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int pos;
+    private int limit;
+    private long bufferStart;
+
+    private int[] stack = new int[32];
+    private int depth;
+
+    private int type = EOF;
+    private long tokenOffset;
+    private final StringBuilder text = new StringBuilder();
+    // Off while skipping: strings and numbers are consumed but not decoded into text
+    private boolean decode = true;
+    // Recently read member names, by hash, so repeated names are not allocated again
+    private final String[] names = new String[NAME_CACHE_SIZE];
+
+    public JsonStreamReader(InputStream in) {
+        this(in, 64 * 1024);
+    }
+
+    public JsonStreamReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+        stack[depth++] = EMPTY_DOCUMENT;
+    }
+
+    /** Advances to the next token and returns its type. */
+    public int next() throws IOException {
+        int c = nextNonWhitespace();
+        switch (stack[depth - 1]) {
+            case EMPTY_DOCUMENT:
+                stack[depth - 1] = NONEMPTY_DOCUMENT;
+                return readValue(c);
+            case NONEMPTY_DOCUMENT:
+                if (c == -1) {
+                    tokenOffset = offset();
+                    return type = EOF;
+                }
+                throw syntaxError("Unexpected data after the top-level value");
+            case EMPTY_ARRAY:
+                if (c == ']') {
+                    return end(END_ARRAY);
+                }
+                stack[depth - 1] = NONEMPTY_ARRAY;
+                return readValue(c);
+            case NONEMPTY_ARRAY:
+                if (c == ']') {
+                    return end(END_ARRAY);
+                }
+                expect(c, ',');
+                return readValue(nextNonWhitespace());
+            case EMPTY_OBJECT:
+                if (c == '}') {
+                    return end(END_OBJECT);
+                }
+                return readName(c);
+            case NONEMPTY_OBJECT:
+                if (c == '}') {
+                    return end(END_OBJECT);
+                }
+                expect(c, ',');
+                return readName(nextNonWhitespace());
+            default: // DANGLING_NAME
+                expect(c, ':');
+                stack[depth - 1] = NONEMPTY_OBJECT;
+                return readValue(nextNonWhitespace());
+        }
+    }
+
+    public int getType() { return type; }
+
+    /** Byte offset of the first byte of the current token. */
+    public long getTokenOffset() { return tokenOffset; }
+
+    /** Nesting depth of open objects and arrays. */
+    public int getDepth() { return depth - 1; }
+
+    /** Decoded text of the current NAME, STRING or NUMBER token. */
+    public String text() { return text.toString(); }
+
+    /**
+     * Text of the current NAME token. A name equal to a recently read one
+     * returns that same String instead of allocating a new one.
+     */
+    public String name() {
+        int hash = 0;
+        for (int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (NAME_CACHE_SIZE - 1);
+        String cached = names[slot];
+        if (cached != null && cached.hashCode() == hash && cached.contentEquals(text)) {
+            return cached;
+        }
+        String name = text.toString();
+        names[slot] = name;
+        return name;
+    }
+
+    /**
+     * The current scalar token as org.json would represent it: String,
+     * Boolean, JSONObject.NULL, or Integer / Long / BigInteger / BigDecimal.
+     */
+    public Object value() throws IOException {
+        switch (type) {
+            case STRING: return text.toString();
+            case TRUE: return Boolean.TRUE;
+            case FALSE: return Boolean.FALSE;
+            case NULL: return JSONObject.NULL;
+            case NUMBER:
+                try {
+                    return number(text);
+                } catch (NumberFormatException e) {
+                    throw new SyntaxException("Invalid number " + text + " at byte " + tokenOffset);
+                }
+            default: throw new IllegalStateException("Not a scalar token");
+        }
+    }
+
+    /**
+     * Skips the rest of the value whose first token is current: nothing
+     * for a scalar, the whole subtree for BEGIN_OBJECT or BEGIN_ARRAY.
+     */
+    public void skipValue() throws IOException {
+        if (type != BEGIN_OBJECT && type != BEGIN_ARRAY) {
+            return;
+        }
+        int target = depth - 1;
+        decode = false;
+        try {
+            while (depth > target) {
+                if (next() == EOF) {
+                    return;
+                }
+            }
+        } finally {
+            decode = true;
+        }
+    }
+
+    /**
+     * Skips the next value, typically the value of a member just read,
+     * without decoding any of it. Returns its type.
+     */
+    public int skipNextValue() throws IOException {
+        int token;
+        decode = false;
+        try {
+            token = next();
+        } finally {
+            decode = true;
+        }
+        skipValue();
+        return token;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private int end(int token) {
+        tokenOffset = offset() - 1;
+        depth--;
+        return type = token;
+    }
+
+    private int readName(int c) throws IOException {
+        if (c != '"') {
+            throw syntaxError("Expected a member name");
+        }
+        tokenOffset = offset() - 1;
+        readString();
+        stack[depth - 1] = DANGLING_NAME;
+        return type = NAME;
+    }
+
+    private int readValue(int c) throws IOException {
+        tokenOffset = offset() - 1;
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return type = BEGIN_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return type = BEGIN_ARRAY;
+            case '"':
+                readString();
+                return type = STRING;
+            case 't':
+                literal("rue");
+                return type = TRUE;
+            case 'f':
+                literal("alse");
+                return type = FALSE;
+            case 'n':
+                literal("ull");
+                return type = NULL;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber(c);
+                    return type = NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    private void push(int state) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = state;
+    }
+
+    private void literal(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+
+    private void readNumber(int first) throws IOException {
+        text.setLength(0);
+        if (decode) {
+            text.append((char) first);
+        }
+        while (true) {
+            if (pos == limit && !fill()) {
+                return;
+            }
+            int c = buffer[pos];
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                if (decode) {
+                    text.append((char) c);
+                }
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    // Decodes a string body (opening quote already consumed) into text
+    private void readString() throws IOException {
+        text.setLength(0);
+        if (!decode) {
+            skipString();
+            return;
+        }
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw syntaxError("Unterminated string");
+            }
+            int b = buffer[pos++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                readEscape();
+            } else if (b >= 0x20) {
+                text.append((char) b);
+            } else if (b >= 0) {
+                throw syntaxError("Unescaped control character in string");
+            } else {
+                readMultiByte(b & 0xFF);
+            }
+        }
+    }
+
+    // Finds the end of a string body without decoding it
+    private void skipString() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw syntaxError("Unterminated string");
+            }
+            int b = buffer[pos++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                // The escaped character cannot end the string
+                read();
+            } else if (b >= 0 && b < 0x20) {
+                throw syntaxError("Unescaped control character in string");
+            }
+        }
+    }
+
+    private void readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': case '\\': case '/': text.append((char) c); break;
+            case 'b': text.append('\b'); break;
+            case 'f': text.append('\f'); break;
+            case 'n': text.append('\n'); break;
+            case 'r': text.append('\r'); break;
+            case 't': text.append('\t'); break;
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int h = Character.digit(read(), 16);
+                    if (h < 0) {
+                        throw syntaxError("Invalid \\u escape");
+                    }
+                    code = code * 16 + h;
+                }
+                text.append((char) code);
+                break;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private void readMultiByte(int lead) throws IOException {
+        int extra;
+        int code;
+        if ((lead & 0xE0) == 0xC0) {
+            extra = 1;
+            code = lead & 0x1F;
+        } else if ((lead & 0xF0) == 0xE0) {
+            extra = 2;
+            code = lead & 0x0F;
+        } else if ((lead & 0xF8) == 0xF0) {
+            extra = 3;
+            code = lead & 0x07;
+        } else {
+            throw syntaxError("Invalid UTF-8 byte");
+        }
+        for (int i = 0; i < extra; i++) {
+            int b = read();
+            if ((b & 0xC0) != 0x80) {
+                throw syntaxError("Invalid UTF-8 sequence");
+            }
+            code = (code << 6) | (b & 0x3F);
+        }
+        text.appendCodePoint(code);
+    }
+
+    private void expect(int c, char expected) throws IOException {
+        if (c != expected) {
+            throw syntaxError(c == -1 ? "Unexpected end of input" : "Expected '" + expected + "'");
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            int c = buffer[pos++] & 0xFF;
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return buffer[pos++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        bufferStart += limit;
+        pos = 0;
+        limit = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private long offset() {
+        return bufferStart + pos;
+    }
+
+    private SyntaxException syntaxError(String message) {
+        return new SyntaxException(message + " at byte " + Math.max(0, offset() - 1));
+    }
+
+    // Same representation as org.json's JSONObject.stringToNumber
+    static Object number(CharSequence s) {
+        String value = s.toString();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                return new BigDecimal(value);
+            }
+        }
+        if ("-0".equals(value)) {
+            return -0.0d;
+        }
+        if (value.length() <= 18) {
+            long v = Long.parseLong(value);
+            if (v == (int) v) {
+                return (int) v;
+            }
+            return v;
+        }
+        BigInteger big = new BigInteger(value);
+        if (big.bitLength() <= 31) {
+            return big.intValue();
+        }
+        if (big.bitLength() <= 63) {
+            return big.longValue();
+        }
+        return big;
+    }
+}
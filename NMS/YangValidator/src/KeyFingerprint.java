@@ -0,0 +1,66 @@
+import java.math.BigDecimal;
+
+/**
+ * 64-bit fingerprints of list key values, computed straight from the
+ * parsed JSON values without building a key String.
+ *
+ * A composite key's fingerprint is the sum of its values' fingerprints
+ * salted by key position, so it can be accumulated in whatever order the
+ * key leaves appear in an entry. Values of different JSON types never
+ * share a fingerprint by construction ("1" and 1 are different keys);
+ * distinct values of the same type collide with probability about 2^-64.
+ */
+public final class KeyFingerprint {
+    private static final long STRING_SALT = 0x2545F4914F6CDD1DL;
+    private static final long NUMBER_SALT = 0x5851F42D4C957F2DL;
+    private static final long OTHER_SALT = 0x14057B7EF767814FL;
+
+    private KeyFingerprint() {
+    }
+
+    /** Adds the value of the key leaf at position to fingerprint. */
+    public static long add(long fingerprint, int position, Object value) {
+        return fingerprint + mix(of(value) + (position + 1) * 0x9E3779B97F4A7C15L);
+    }
+
+    static long of(Object value) {
+        if (value instanceof String) {
+            return mix(hash((String) value) ^ STRING_SALT);
+        }
+        if (value instanceof Integer || value instanceof Long) {
+            return mix(((Number) value).longValue() ^ NUMBER_SALT);
+        }
+        if (value instanceof BigDecimal) {
+            // 1.0 and 1 are the same number
+            BigDecimal d = ((BigDecimal) value).stripTrailingZeros();
+            if (d.scale() <= 0 && d.precision() - d.scale() < 19) {
+                return mix(d.longValue() ^ NUMBER_SALT);
+            }
+            return mix(hash(d.toPlainString()) ^ NUMBER_SALT);
+        }
+        if (value instanceof Number) {
+            return mix(hash(value.toString()) ^ NUMBER_SALT);
+        }
+        return mix(hash(String.valueOf(value)) ^ OTHER_SALT);
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars
+    private static long hash(String s) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return h;
+    }
+
+    // Final mixer from MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE51A85A3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.Arrays;
+
+/**
+ * Map from long to non-negative int using open addressing over primitive
+ * arrays, so adding an entry allocates nothing (apart from an occasional
+ * doubling). Used to index list entries by key fingerprint. Not
+ * thread-safe.
+ */
+public class LongIntHashMap {
+    public static final int ABSENT = -1;
+
+    private long[] keys;
+    // Slots hold value + 1; 0 marks an empty slot. Kept at most half full.
+    private int[] values;
+    private int size;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Maps key to value unless it is already present. Returns the existing
+     * value, or ABSENT if value was stored.
+     */
+    public int putIfAbsent(long key, int value) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (values[i] != 0) {
+            if (keys[i] == key) {
+                return values[i] - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value + 1;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+        return ABSENT;
+    }
+
+    public int get(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (values[i] != 0) {
+            if (keys[i] == key) {
+                return values[i] - 1;
+            }
+            i = (i + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != 0) {
+                int i = mix(oldKeys[j]) & mask;
+                while (values[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+}
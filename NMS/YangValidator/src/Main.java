@@ -2,6 +2,11 @@ import java.io.File;
 
 public class Main {
     public static void main(String[] args) {
+        // Subcommands run non-interactively and report through the exit code
+        if (args.length > 0) {
+            System.exit(new BatchCli().run(args));
+        }
+        
         try {
             System.out.println("=== YANG Model Validator ===");
             System.out.println("Initializing application...");
@@ -0,0 +1,470 @@
+import model.ModuleResolver;
+import model.YangModule;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Loads YANG modules together with everything they import, resolving
+ * import names against a list of search directories.
+ *
+ * Each module is parsed at most once and the same YangModule is returned
+ * to every importer. Loading proceeds in waves: all modules named so far
+ * that are not loaded yet are parsed concurrently on a BulkParser, their
+ * imports form the next wave, and so on until the import closure is
+ * complete. Parsing a module never needs the modules it imports, so a
+ * whole wave can run in parallel.
+ *
+ * The loaded modules and their imports form the dependency graph;
+ * getWaves() orders it topologically into groups of modules that only
+ * import modules from earlier groups. After loading, uses of imported
+ * groupings are expanded and then the loaded modules' augments and
+ * deviations are applied in that order (see SchemaPatcher), editing the
+ * target modules' trees in place.
+ *
+ * Alternatively a module can be registered on its own: its imports are
+ * then loaded one at a time, only when YangModule.getImportedModule() or
+ * getModuleForPrefix() dereferences them. Modules loaded that way are kept
+ * in an LRU of at most maxResidentImports entries and re-parsed if needed
+ * again after eviction, so validating one module of a large tree only
+ * costs the modules it actually uses. The registered module's augments
+ * and deviations are applied, and the modules they edit are pinned so the
+ * edits are not lost to eviction. So are modules whose groupings were
+ * expanded into another module: the importer links the grouping's nodes,
+ * which refer back to their defining module, so evicting it would free
+ * nothing and the next resolve() would parse a second instance. Modules
+ * only used for their typedefs stay evictable, since resolved types keep
+ * no reference to the module they came from. Modules loaded on demand are only
+ * imported, so their own augments and deviations are not applied; a
+ * problem is recorded for each such module that has any.
+ */
+public class ModuleRegistry implements ModuleResolver {
+    public static final int DEFAULT_MAX_RESIDENT_IMPORTS = 256;
+
+    private final YangParser parser;
+    private final List<Path> searchPaths;
+    private final BulkParser bulkParser;
+
+    // Module name -> file, built from the search paths on first lookup
+    private Map<String, Path> files;
+    private final Map<String, ParseResult> loaded = new LinkedHashMap<>();
+    private final Set<String> missing = new LinkedHashSet<>();
+    private final List<String> problems = new ArrayList<>();
+    private int parseWaves;
+
+    // Modules loaded on demand, least recently used first; the rest are pinned
+    private final LinkedHashMap<String, Boolean> evictable = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxResidentImports;
+    private final Set<String> touched = new LinkedHashSet<>();
+    private int lazyLoads;
+    private int evictions;
+    // Set while uses are expanded or patches applied: a module evicted mid-way would come back
+    // as a second instance, without the edits made to it or the links made into it
+    private boolean deferEviction;
+    private int augmentsApplied;
+    private int deviationsApplied;
+    private long patchNanos;
+
+    public ModuleRegistry(YangParser parser, List<Path> searchPaths) {
+        this(parser, searchPaths, ForkJoinPool.commonPool(), DEFAULT_MAX_RESIDENT_IMPORTS);
+    }
+
+    public ModuleRegistry(YangParser parser, List<Path> searchPaths, ForkJoinPool pool, int maxResidentImports) {
+        this.parser = parser;
+        this.searchPaths = new ArrayList<>(searchPaths);
+        this.bulkParser = new BulkParser(parser, pool);
+        this.maxResidentImports = maxResidentImports;
+    }
+
+    /**
+     * Loads the named modules and their imports. Returns the modules in
+     * the order given, skipping names that could not be found or parsed.
+     */
+    public synchronized List<YangModule> load(Collection<String> names) throws IOException {
+        evictable.keySet().removeAll(names);
+        List<YangModule> added = loadClosure(new LinkedHashSet<>(names), Collections.emptyMap());
+        expandUses(added);
+        applyPatches(added);
+        List<YangModule> modules = new ArrayList<>();
+        for (String name : names) {
+            YangModule module = get(name);
+            if (module != null) {
+                modules.add(module);
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * Parses a file outside the search paths, registers it under its module
+     * name and loads its imports. Returns its parse result.
+     */
+    public synchronized ParseResult loadFile(Path file) throws IOException {
+        ParseResult result = parser.parse(file.toString());
+        YangModule module = result.getModule();
+        if (module == null) {
+            problems.add("No module declaration found in " + file);
+            return result;
+        }
+        if (!loaded.containsKey(module.getName())) {
+            put(module.getName(), result);
+            Map<String, String> importedBy = new HashMap<>();
+            for (String imported : module.getImports()) {
+                importedBy.put(imported, module.getName());
+            }
+            List<YangModule> added = loadClosure(new LinkedHashSet<>(module.getImports()), importedBy);
+            added.add(module);
+            expandUses(added);
+            applyPatches(added);
+        }
+        return result;
+    }
+
+    /**
+     * Registers an already loaded module without loading its imports; they
+     * are parsed on first dereference.
+     */
+    public synchronized void register(YangModule module) {
+        evictable.remove(module.getName());
+        put(module.getName(), new ParseResult(module.getName(), module, Collections.emptyList()));
+        expandUses(Collections.singletonList(module));
+        applyPatches(Collections.singletonList(module));
+    }
+
+    /**
+     * Loads a single module on demand (imports are not followed) and keeps
+     * it in the LRU of lazily loaded modules. Returns null if it cannot be
+     * found or parsed.
+     */
+    @Override
+    public synchronized YangModule resolve(String name) {
+        touched.add(name);
+        ParseResult result = loaded.get(name);
+        if (result != null) {
+            evictable.get(name);
+            return result.getModule();
+        }
+        if (missing.contains(name)) {
+            return null;
+        }
+
+        try {
+            Path file = locate(name);
+            if (file == null) {
+                missing.add(name);
+                problems.add("Module '" + name + "' not found in search path");
+                return null;
+            }
+            result = parser.parse(file.toString());
+        } catch (IOException e) {
+            missing.add(name);
+            problems.add("Could not read module '" + name + "': " + e.getMessage());
+            return null;
+        }
+        if (result.getModule() == null) {
+            missing.add(name);
+            problems.add("No module declaration found in " + result.getSource());
+            return null;
+        }
+        lazyLoads++;
+        put(name, result);
+        evictable.put(name, Boolean.TRUE);
+        expandUses(Collections.singletonList(result.getModule()));
+        int statements = result.getModule().getAugments().size() + result.getModule().getDeviations().size();
+        if (statements > 0) {
+            problems.add(name + ": loaded on demand as an import, so its " + statements
+                    + " augment/deviation statement(s) are not applied");
+        }
+        return result.getModule();
+    }
+
+    private void evictOverflow() {
+        while (maxResidentImports > 0 && evictable.size() > maxResidentImports) {
+            String eldest = evictable.keySet().iterator().next();
+            evictable.remove(eldest);
+            loaded.remove(eldest);
+            evictions++;
+        }
+    }
+
+    private void put(String name, ParseResult result) {
+        result.getModule().setResolver(this);
+        loaded.put(name, result);
+    }
+
+    /**
+     * Expands uses of groupings from imported modules, which the parser had
+     * to leave in place. Local groupings are already expanded by then.
+     */
+    private void expandUses(List<YangModule> modules) {
+        GroupingExpander expander = new GroupingExpander();
+        boolean deferred = deferEviction;
+        deferEviction = true;
+        try {
+            for (YangModule module : modules) {
+                if (!module.getImportPrefixes().isEmpty()) {
+                    expander.expand(module, (uses, message) -> {
+                        // Problems with local groupings were already reported by the parser
+                        if (uses.getName().indexOf(':') >= 0) {
+                            problems.add(module.getName() + ": " + message);
+                        }
+                    });
+                }
+            }
+        } finally {
+            deferEviction = deferred;
+        }
+        for (YangModule owner : expander.getGroupingModules()) {
+            if (get(owner.getName()) == owner) {
+                evictable.remove(owner.getName());
+            }
+        }
+        if (!deferEviction) {
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Applies the augments and deviations of newly loaded modules, wave by
+     * wave so that a module's targets already carry the changes of the
+     * modules it imports.
+     */
+    private void applyPatches(List<YangModule> modules) {
+        Set<YangModule> pending = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (YangModule module : modules) {
+            if (!module.getAugments().isEmpty() || !module.getDeviations().isEmpty()) {
+                pending.add(module);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        String[] current = new String[1];
+        SchemaPatcher patcher = new SchemaPatcher((statement, message) -> problems.add(current[0] + ": " + message));
+        boolean deferred = deferEviction;
+        deferEviction = true;
+        try {
+            for (List<String> wave : getWaves()) {
+                for (String name : wave) {
+                    YangModule module = get(name);
+                    // A module registered or loaded twice is still patched once
+                    if (pending.contains(module) && module.markPatchesApplied()) {
+                        current[0] = name;
+                        patcher.apply(module);
+                    }
+                }
+            }
+        } finally {
+            deferEviction = deferred;
+        }
+        // Edited modules cannot be re-parsed after eviction without losing the edits
+        for (YangModule target : patcher.getPatchedModules()) {
+            evictable.remove(target.getName());
+        }
+        if (!deferEviction) {
+            evictOverflow();
+        }
+        augmentsApplied += patcher.getAugmentsApplied();
+        deviationsApplied += patcher.getDeviationsApplied();
+        patchNanos += patcher.getElapsedNanos();
+    }
+
+    // Parses pending and everything it imports, one concurrent wave at a time;
+    // returns the modules added
+    private List<YangModule> loadClosure(Set<String> pending, Map<String, String> importers) throws IOException {
+        List<YangModule> added = new ArrayList<>();
+        Map<String, String> importedBy = new HashMap<>(importers);
+        pending.removeAll(loaded.keySet());
+        pending.removeAll(missing);
+        while (!pending.isEmpty()) {
+            List<Path> wave = new ArrayList<>();
+            Map<String, String> expected = new HashMap<>();
+            for (String name : pending) {
+                Path file = locate(name);
+                if (file == null) {
+                    missing.add(name);
+                    String importer = importedBy.get(name);
+                    problems.add(importer == null
+                            ? "Module '" + name + "' not found in search path"
+                            : "Module '" + name + "' imported by '" + importer + "' not found in search path");
+                } else {
+                    wave.add(file);
+                    expected.put(file.toString(), name);
+                }
+            }
+            if (wave.isEmpty()) {
+                break;
+            }
+            parseWaves++;
+
+            Set<String> next = new LinkedHashSet<>();
+            for (ParseResult result : bulkParser.parseAll(wave, null).getResults()) {
+                String name = expected.get(result.getSource());
+                YangModule module = result.getModule();
+                if (module == null) {
+                    missing.add(name);
+                    problems.add("No module declaration found in " + result.getSource());
+                    continue;
+                }
+                if (!name.equals(module.getName())) {
+                    problems.add("File " + result.getSource() + " declares module '" + module.getName()
+                            + "', expected '" + name + "'");
+                }
+                put(name, result);
+                added.add(module);
+                for (String imported : module.getImports()) {
+                    if (!loaded.containsKey(imported) && !missing.contains(imported) && next.add(imported)) {
+                        importedBy.put(imported, name);
+                    }
+                }
+            }
+            pending = next;
+        }
+        return added;
+    }
+
+    /**
+     * Finds the file for a module: "name.yang" or "name@revision.yang" in the
+     * first search directory that has one, preferring the latest revision.
+     */
+    public synchronized Path locate(String name) throws IOException {
+        if (files == null) {
+            files = new HashMap<>();
+            for (Path dir : searchPaths) {
+                Map<String, Path> inDir = new HashMap<>();
+                for (Path file : BulkParser.findYangFiles(dir)) {
+                    String fileName = file.getFileName().toString();
+                    String base = fileName.substring(0, fileName.length() - ".yang".length());
+                    int at = base.indexOf('@');
+                    String moduleName = at >= 0 ? base.substring(0, at) : base;
+                    Path current = inDir.get(moduleName);
+                    // Revisions are dates, so the latest sorts last
+                    if (current == null || current.getFileName().toString().compareTo(fileName) < 0) {
+                        inDir.put(moduleName, file);
+                    }
+                }
+                for (Map.Entry<String, Path> entry : inDir.entrySet()) {
+                    files.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return files.get(name);
+    }
+
+    /** The loaded module with this name, or null. */
+    public synchronized YangModule get(String name) {
+        ParseResult result = loaded.get(name);
+        return result == null ? null : result.getModule();
+    }
+
+    public synchronized ParseResult getParseResult(String name) { return loaded.get(name); }
+
+    public synchronized List<YangModule> getModules() {
+        List<YangModule> modules = new ArrayList<>(loaded.size());
+        for (ParseResult result : loaded.values()) {
+            modules.add(result.getModule());
+        }
+        return modules;
+    }
+
+    /** Imports of the named module that are loaded (its edges in the dependency graph). */
+    public synchronized List<String> getDependencies(String name) {
+        List<String> dependencies = new ArrayList<>();
+        YangModule module = get(name);
+        if (module != null) {
+            for (String imported : module.getImports()) {
+                if (loaded.containsKey(imported) && !dependencies.contains(imported)) {
+                    dependencies.add(imported);
+                }
+            }
+        }
+        return dependencies;
+    }
+
+    /**
+     * Loaded module names in topological order, grouped into waves: a
+     * module only imports modules from earlier waves, so the modules of
+     * one wave are independent of each other. Modules on an import cycle
+     * are reported through getProblems() and returned as a final wave.
+     */
+    public synchronized List<List<String>> getWaves() {
+        Map<String, Integer> remaining = new LinkedHashMap<>();
+        Map<String, List<String>> importers = new HashMap<>();
+        for (String name : loaded.keySet()) {
+            List<String> dependencies = getDependencies(name);
+            remaining.put(name, dependencies.size());
+            for (String dependency : dependencies) {
+                importers.computeIfAbsent(dependency, k -> new ArrayList<>()).add(name);
+            }
+        }
+
+        List<List<String>> waves = new ArrayList<>();
+        List<String> wave = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : remaining.entrySet()) {
+            if (entry.getValue() == 0) {
+                wave.add(entry.getKey());
+            }
+        }
+        while (!wave.isEmpty()) {
+            Collections.sort(wave);
+            waves.add(wave);
+            List<String> next = new ArrayList<>();
+            for (String name : wave) {
+                remaining.remove(name);
+                for (String importer : importers.getOrDefault(name, Collections.emptyList())) {
+                    if (remaining.merge(importer, -1, Integer::sum) == 0) {
+                        next.add(importer);
+                    }
+                }
+            }
+            wave = next;
+        }
+
+        if (!remaining.isEmpty()) {
+            List<String> cycle = new ArrayList<>(remaining.keySet());
+            Collections.sort(cycle);
+            String problem = "Import cycle between: " + String.join(", ", cycle);
+            if (!problems.contains(problem)) {
+                problems.add(problem);
+            }
+            waves.add(cycle);
+        }
+        return waves;
+    }
+
+    /** Missing modules, unparseable files and import cycles found so far. */
+    public synchronized List<String> getProblems() { return new ArrayList<>(problems); }
+
+    public synchronized int getLoadedCount() { return loaded.size(); }
+
+    /** Number of concurrent parse waves run so far. */
+    public synchronized int getParseWaves() { return parseWaves; }
+
+    /** Distinct modules dereferenced through resolve(), loaded or not. */
+    public synchronized int getTouchedCount() { return touched.size(); }
+
+    /** Parses done by resolve(), including re-parses after eviction. */
+    public synchronized int getLazyLoadCount() { return lazyLoads; }
+
+    public synchronized int getEvictionCount() { return evictions; }
+
+    public synchronized String getPatchStats() {
+        return String.format("Applied %d augment(s) and %d deviation(s) in %.1f ms",
+                augmentsApplied, deviationsApplied, patchNanos / 1e6);
+    }
+
+    public synchronized String getLazyStats() {
+        return String.format("Imported modules: %d touched, %d loaded on demand, %d evicted, %d resident",
+                touched.size(), lazyLoads, evictions, loaded.size());
+    }
+}
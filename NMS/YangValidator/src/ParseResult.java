@@ -0,0 +1,49 @@
+import model.YangModule;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a single pass over a YANG file: the module tree (null when no
+ * module statement was found) and every diagnostic reported along the way.
+ */
+public class ParseResult {
+    private final String source;
+    private final YangModule module;
+    private final List<Diagnostic> diagnostics;
+
+    public ParseResult(String source, YangModule module, List<Diagnostic> diagnostics) {
+        this.source = source;
+        this.module = module;
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+    }
+
+    public String getSource() { return source; }
+
+    public YangModule getModule() { return module; }
+
+    public List<Diagnostic> getDiagnostics() { return diagnostics; }
+
+    public List<Diagnostic> getErrors() {
+        return filter(Diagnostic.Severity.ERROR);
+    }
+
+    public List<Diagnostic> getWarnings() {
+        return filter(Diagnostic.Severity.WARNING);
+    }
+
+    public boolean hasErrors() {
+        for (Diagnostic d : diagnostics) {
+            if (d.isError()) return true;
+        }
+        return false;
+    }
+
+    private List<Diagnostic> filter(Diagnostic.Severity severity) {
+        List<Diagnostic> result = new ArrayList<>();
+        for (Diagnostic d : diagnostics) {
+            if (d.getSeverity() == severity) result.add(d);
+        }
+        return result;
+    }
+}
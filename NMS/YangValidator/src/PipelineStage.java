@@ -0,0 +1,126 @@
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Function;
+
+/**
+ * One step of a Flow pipeline: applies a function to each item on up to
+ * parallelism worker threads and publishes the results in arrival order.
+ *
+ * At most bufferSize items are requested from upstream and not yet
+ * published, and the downstream buffer holds at most bufferSize results.
+ * When that buffer is full, submit() blocks the worker, no further items
+ * are requested, and the upstream stage in turn fills up and stops. A
+ * slow subscriber therefore throttles the producer instead of letting
+ * queues grow.
+ *
+ * If the function throws, upstream is cancelled, the exception is passed
+ * to onError downstream, and results of items still in flight are dropped.
+ */
+class PipelineStage<I, O> implements Flow.Processor<I, O> {
+    private final Function<? super I, ? extends O> function;
+    private final Executor workers;
+    private final SubmissionPublisher<O> out;
+    private final int window;
+
+    // Results waiting for earlier items to finish, indexed by sequence % window
+    private final Object[] pending;
+    private Flow.Subscription upstream;
+    private long received;
+    private long published;
+    private boolean upstreamDone;
+    // First failure; once set, results still arriving from workers are dropped
+    private Throwable failure;
+
+    PipelineStage(Function<? super I, ? extends O> function, int parallelism, int bufferSize,
+                  Executor workers, Executor delivery) {
+        this.function = function;
+        this.workers = workers;
+        // Keeping more items in flight than workers lets each thread wake-up
+        // handle a batch instead of a single item
+        this.window = Math.max(parallelism, bufferSize);
+        this.pending = new Object[window];
+        this.out = new SubmissionPublisher<>(delivery, bufferSize);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super O> subscriber) {
+        out.subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        synchronized (this) {
+            upstream = subscription;
+        }
+        subscription.request(window);
+    }
+
+    @Override
+    public void onNext(I item) {
+        long sequence;
+        synchronized (this) {
+            sequence = received++;
+        }
+        workers.execute(() -> {
+            O result;
+            try {
+                result = Objects.requireNonNull(function.apply(item), "stage produced null");
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            publish(sequence, result);
+        });
+    }
+
+    // Publishes every result that is next in sequence; blocks while the
+    // downstream buffer is full, which is what holds back upstream
+    @SuppressWarnings("unchecked")
+    private synchronized void publish(long sequence, O result) {
+        if (failure != null) {
+            return;
+        }
+        pending[(int) (sequence % window)] = result;
+        int slot;
+        while (pending[slot = (int) (published % window)] != null) {
+            O next = (O) pending[slot];
+            pending[slot] = null;
+            published++;
+            out.submit(next);
+            upstream.request(1);
+        }
+        if (upstreamDone && published == received) {
+            out.close();
+        }
+    }
+
+    // Only the first failure closes the publisher; publish() checks the
+    // field under the same lock, so nothing is submitted after that
+    private void fail(Throwable throwable) {
+        synchronized (this) {
+            if (failure != null) {
+                return;
+            }
+            failure = throwable;
+            Arrays.fill(pending, null);
+        }
+        upstream.cancel();
+        out.closeExceptionally(throwable);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        fail(throwable);
+    }
+
+    @Override
+    public synchronized void onComplete() {
+        upstreamDone = true;
+        if (failure == null && published == received) {
+            out.close();
+        }
+    }
+}
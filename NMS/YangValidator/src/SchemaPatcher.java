@@ -0,0 +1,162 @@
+import model.SchemaIndex;
+import model.YangModule;
+import model.YangNode;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Applies a module's top-level augment and deviation statements to the
+ * trees of the modules they target.
+ *
+ * A target such as "/if:interfaces/if:interface" names its module by the
+ * prefix of the first segment (resolved through the augmenting module's
+ * imports) and is looked up in that module's SchemaIndex, so applying a
+ * statement costs one hash lookup plus copying the few shared nodes on
+ * the path, never a walk of the tree. The index is updated as nodes are
+ * added or removed, so later statements can target nodes added by earlier
+ * ones; apply modules in dependency order (ModuleRegistry.getWaves()).
+ *
+ * Supported deviations: not-supported removes the target; add and replace
+ * set mandatory, and replace also sets the type and its restrictions.
+ * Other deviate properties (default, units, must, ...) are not modeled.
+ */
+public class SchemaPatcher {
+    private final BiConsumer<YangNode, String> problems;
+    private final Set<YangModule> patched = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private int augmentsApplied;
+    private int deviationsApplied;
+    private long elapsedNanos;
+
+    /**
+     * @param problems receives the augment or deviation node and a message
+     *        for each statement that cannot be applied
+     */
+    public SchemaPatcher(BiConsumer<YangNode, String> problems) {
+        this.problems = problems;
+    }
+
+    public void apply(YangModule source) {
+        long start = System.nanoTime();
+        for (YangNode augment : source.getAugments()) {
+            applyAugment(source, augment);
+        }
+        for (YangNode deviation : source.getDeviations()) {
+            applyDeviation(source, deviation);
+        }
+        elapsedNanos += System.nanoTime() - start;
+    }
+
+    private void applyAugment(YangModule source, YangNode augment) {
+        YangModule target = targetModule(source, augment);
+        if (target == null) {
+            return;
+        }
+        YangNode node = target.getSchemaIndex().makeWritable(augment.getName());
+        if (node == null) {
+            problems.accept(augment, "Augment target '" + augment.getName() + "' not found");
+            return;
+        }
+        List<YangNode> added = augment.getChildren();
+        if (target != source) {
+            // The added nodes' types refer to the augmenting module
+            markDefiningModule(added, source);
+        }
+        target.getSchemaIndex().addChildren(node, added);
+        patched.add(target);
+        augmentsApplied++;
+    }
+
+    private void applyDeviation(YangModule source, YangNode deviation) {
+        YangModule target = targetModule(source, deviation);
+        if (target == null) {
+            return;
+        }
+        SchemaIndex index = target.getSchemaIndex();
+        boolean edited = false;
+        for (YangNode deviate : deviation.getChildren()) {
+            // Looked up per deviate: an earlier not-supported may have removed the target
+            if (index.find(deviation.getName()) == null) {
+                problems.accept(deviation, "Deviation target '" + deviation.getName() + "' not found");
+                break;
+            }
+            switch (deviate.getName()) {
+                case "not-supported":
+                    index.remove(deviation.getName());
+                    edited = true;
+                    break;
+                case "add":
+                case "replace":
+                    YangNode node = index.makeWritable(deviation.getName());
+                    if ("replace".equals(deviate.getName()) && deviate.getDataType() != null) {
+                        node.setDataType(deviate.getDataType());
+                        node.setScopedTypedef(deviate.getScopedTypedef());
+                        node.setRange(deviate.getRange());
+                        node.setLength(deviate.getLength());
+                        node.setPatterns(deviate.getPatterns());
+                        if (target != source) {
+                            node.setDefiningModule(source);
+                        }
+                    }
+                    for (YangNode statement : deviate.getChildren()) {
+                        if ("mandatory".equals(statement.getType())) {
+                            node.setMandatory("true".equals(statement.getName()));
+                        }
+                    }
+                    edited = true;
+                    break;
+                case "delete":
+                    // Only deletes properties that are not modeled
+                    break;
+                default:
+                    problems.accept(deviation, "Unknown deviate '" + deviate.getName() + "'");
+                    break;
+            }
+        }
+        // Recorded once anything changed, even if a later deviate lost its target
+        if (edited) {
+            patched.add(target);
+            deviationsApplied++;
+        }
+    }
+
+    private YangModule targetModule(YangModule source, YangNode statement) {
+        String path = statement.getName();
+        if (!path.startsWith("/")) {
+            problems.accept(statement, "Target '" + path + "' is not an absolute schema path");
+            return null;
+        }
+        int colon = path.indexOf(':');
+        int slash = path.indexOf('/', 1);
+        if (colon < 0 || (slash >= 0 && colon > slash)) {
+            return source;
+        }
+        String prefix = path.substring(1, colon);
+        YangModule target = source.getModuleForPrefix(prefix);
+        if (target == null) {
+            problems.accept(statement, "Target '" + path + "': unknown or unavailable module prefix '" + prefix + "'");
+        }
+        return target;
+    }
+
+    private static void markDefiningModule(List<YangNode> nodes, YangModule owner) {
+        for (YangNode node : nodes) {
+            if (node.getDefiningModule() == null) {
+                node.setDefiningModule(owner);
+                markDefiningModule(node.getChildren(), owner);
+            }
+        }
+    }
+
+    public int getAugmentsApplied() { return augmentsApplied; }
+
+    public int getDeviationsApplied() { return deviationsApplied; }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /** Modules whose trees have been edited so far. */
+    public Set<YangModule> getPatchedModules() { return patched; }
+}
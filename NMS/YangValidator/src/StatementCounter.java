@@ -0,0 +1,55 @@
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * YangEventHandler that tallies statements by keyword and tracks nesting
+ * depth, in memory independent of module size.
+ */
+public class StatementCounter implements YangEventHandler {
+    private final Map<String, Integer> counts = new TreeMap<>();
+    private int statements;
+    private int depth;
+    private int maxDepth;
+    private int errors;
+    private int warnings;
+
+    @Override
+    public void startStatement(String keyword, String argument, int line) {
+        statements++;
+        counts.merge(keyword, 1, Integer::sum);
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    @Override
+    public boolean wantsArgument(String keyword) {
+        return false;
+    }
+
+    @Override
+    public void endStatement(String keyword, int line) {
+        depth--;
+    }
+
+    @Override
+    public void diagnostic(Diagnostic diagnostic) {
+        if (diagnostic.isError()) {
+            errors++;
+        } else {
+            warnings++;
+        }
+    }
+
+    public int getStatementCount() { return statements; }
+
+    public int getMaxDepth() { return maxDepth; }
+
+    public int getCount(String keyword) { return counts.getOrDefault(keyword, 0); }
+
+    /** Per-keyword counts, sorted by keyword. */
+    public Map<String, Integer> getCounts() { return counts; }
+
+    public int getErrorCount() { return errors; }
+
+    public int getWarningCount() { return warnings; }
+}
@@ -0,0 +1,235 @@
+import model.YangModule;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Schema-guided validation of instance documents too large to load into a
+ * JSONObject.
+ *
+ * The document is read token by token with a JsonStreamReader while the
+ * compiled schema of an InstanceValidator is walked alongside it. Only
+ * the path from the root to the current value is held in memory (plus one
+ * small "seen" array per open object with mandatory leaves or keys), so a
+ * multi-GB export is validated in a few MB of heap. The values of unknown
+ * members are skipped without decoding their strings or numbers, and
+ * member names seen before are looked up without allocating a new String.
+ * Errors carry the instance path and the byte offset of the offending
+ * value and are handed to a listener as they are found, in document order.
+ *
+ * List key uniqueness is checked on 64-bit KeyFingerprints, which cost
+ * about 16 bytes per entry and cannot be confirmed against the original
+ * values once they have streamed past; a false duplicate needs two
+ * distinct keys with the same fingerprint (probability about n^2 / 2^65).
+ */
+public class StreamingInstanceValidator {
+    private static final InstanceValidator.SchemaNode[] NO_NODES = new InstanceValidator.SchemaNode[0];
+
+    private final InstanceValidator schema;
+
+    public StreamingInstanceValidator(YangModule module) {
+        this(new InstanceValidator(module));
+    }
+
+    /** Shares the compiled schema of an existing InstanceValidator. */
+    public StreamingInstanceValidator(InstanceValidator schema) {
+        this.schema = schema;
+    }
+
+    public List<InstanceError> validate(Path file) throws IOException {
+        List<InstanceError> errors = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file)) {
+            validate(in, errors::add);
+        }
+        return errors;
+    }
+
+    /**
+     * Validates one JSON document read from in, reporting each error to
+     * listener. Returns the number of errors. Malformed JSON stops the
+     * scan with a JsonStreamReader.SyntaxException naming the byte offset.
+     */
+    public long validate(InputStream in, Consumer<InstanceError> listener) throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(in);
+        InstanceValidator.Walk walk = new InstanceValidator.Walk(listener);
+
+        int token = reader.next();
+        if (token != JsonStreamReader.BEGIN_OBJECT) {
+            walk.error("Expected a JSON object at the top level", reader.getTokenOffset());
+            reader.skipValue();
+        } else {
+            members(reader, schema.root(), walk, null, null);
+        }
+        if (reader.next() != JsonStreamReader.EOF) {
+            throw new JsonStreamReader.SyntaxException("Unexpected data after the document at byte " + reader.getTokenOffset());
+        }
+        return walk.getErrorCount();
+    }
+
+    /**
+     * Key fingerprints of the list being read. Takes two primitive slots
+     * per entry; no key String or boxed value is kept.
+     */
+    private static final class ListKeys {
+        final LongIntHashMap firstIndex = new LongIntHashMap();
+        final List<long[]> duplicates = new ArrayList<>(); // {index, first, offset}
+        long fingerprint;
+    }
+
+    // Reads the members of an object whose BEGIN_OBJECT was just consumed.
+    // For a list entry, list and listKeys are set and the entry's key
+    // fingerprint is left in listKeys; returns false if a key is missing.
+    private boolean members(JsonStreamReader reader, InstanceValidator.SchemaNode parent,
+                            InstanceValidator.Walk walk, InstanceValidator.SchemaNode list,
+                            ListKeys listKeys) throws IOException {
+        long objectOffset = reader.getTokenOffset();
+        InstanceValidator.SchemaNode[] keys = list != null ? list.keyNodes : NO_NODES;
+        InstanceValidator.SchemaNode[] mandatory = parent.mandatory;
+        boolean[] seen = mandatory.length + keys.length > 0 ? new boolean[mandatory.length + keys.length] : null;
+
+        while (reader.next() == JsonStreamReader.NAME) {
+            String member = reader.name();
+            InstanceValidator.SchemaNode child = parent.members.get(member);
+            walk.push(member, -1);
+            if (child == null) {
+                long offset = reader.getTokenOffset();
+                reader.skipNextValue();
+                walk.error("Unknown element '" + member + "'", offset);
+            } else {
+                if (seen != null) {
+                    mark(seen, mandatory, keys, child);
+                }
+                Object value = value(reader, child, walk);
+                for (int k = 0; k < keys.length; k++) {
+                    if (keys[k] == child && value != null) {
+                        listKeys.fingerprint = KeyFingerprint.add(listKeys.fingerprint, k, value);
+                    }
+                }
+            }
+            walk.pop();
+        }
+
+        for (int i = 0; i < mandatory.length; i++) {
+            if (!seen[i]) {
+                walk.error(InstanceValidator.missingMandatoryMessage(mandatory[i]), objectOffset);
+            }
+        }
+        boolean complete = true;
+        for (int i = 0; i < keys.length; i++) {
+            if (!seen[mandatory.length + i]) {
+                walk.error(InstanceValidator.missingKeyMessage(keys[i], list), objectOffset);
+                complete = false;
+            }
+        }
+        return complete;
+    }
+
+    private static void mark(boolean[] seen, InstanceValidator.SchemaNode[] mandatory,
+                             InstanceValidator.SchemaNode[] keys, InstanceValidator.SchemaNode child) {
+        for (int i = 0; i < mandatory.length; i++) {
+            if (mandatory[i] == child) seen[i] = true;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == child) seen[mandatory.length + i] = true;
+        }
+    }
+
+    // Validates one value; returns it if it is a scalar leaf value, else null
+    private Object value(JsonStreamReader reader, InstanceValidator.SchemaNode node,
+                         InstanceValidator.Walk walk) throws IOException {
+        int token = reader.next();
+        long offset = reader.getTokenOffset();
+        switch (node.kind) {
+            case InstanceValidator.CONTAINER:
+                if (token == JsonStreamReader.BEGIN_OBJECT) {
+                    members(reader, node, walk, null, null);
+                } else {
+                    reader.skipValue();
+                    walk.error("Expected an object for container '" + node.name + "'", offset);
+                }
+                break;
+            case InstanceValidator.LIST:
+                if (token != JsonStreamReader.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    walk.error("Expected an array for list '" + node.name + "'", offset);
+                    break;
+                }
+                ListKeys listKeys = node.keyNodes.length > 0 ? new ListKeys() : null;
+                for (int i = 0; (token = reader.next()) != JsonStreamReader.END_ARRAY; i++) {
+                    walk.index(i);
+                    long entryOffset = reader.getTokenOffset();
+                    if (token != JsonStreamReader.BEGIN_OBJECT) {
+                        reader.skipValue();
+                        walk.error("Expected an object for entry of list '" + node.name + "'", entryOffset);
+                        continue;
+                    }
+                    if (listKeys != null) {
+                        listKeys.fingerprint = 0;
+                    }
+                    if (members(reader, node, walk, node, listKeys) && listKeys != null) {
+                        int first = listKeys.firstIndex.putIfAbsent(listKeys.fingerprint, i);
+                        if (first != LongIntHashMap.ABSENT) {
+                            listKeys.duplicates.add(new long[] {i, first, entryOffset});
+                        }
+                    }
+                }
+                // Reported after the entries, as InstanceValidator does
+                if (listKeys != null) {
+                    for (long[] duplicate : listKeys.duplicates) {
+                        walk.index((int) duplicate[0]);
+                        walk.error(InstanceValidator.duplicateKeyMessage(node, (int) duplicate[1]), duplicate[2]);
+                    }
+                }
+                walk.index(-1);
+                break;
+            case InstanceValidator.LEAF_LIST:
+                if (token != JsonStreamReader.BEGIN_ARRAY) {
+                    reader.skipValue();
+                    walk.error("Expected an array for leaf-list '" + node.name + "'", offset);
+                    break;
+                }
+                for (int i = 0; (token = reader.next()) != JsonStreamReader.END_ARRAY; i++) {
+                    walk.index(i);
+                    leaf(reader, token, node, walk);
+                }
+                walk.index(-1);
+                break;
+            default:
+                return leaf(reader, token, node, walk);
+        }
+        return null;
+    }
+
+    private Object leaf(JsonStreamReader reader, int token, InstanceValidator.SchemaNode leaf,
+                        InstanceValidator.Walk walk) throws IOException {
+        long offset = reader.getTokenOffset();
+        if (token == JsonStreamReader.BEGIN_ARRAY && leaf.emptyType) {
+            // empty is encoded as [null]
+            int depth = reader.getDepth();
+            int next = reader.next();
+            if (next == JsonStreamReader.NULL && (next = reader.next()) == JsonStreamReader.END_ARRAY) {
+                return null;
+            }
+            reader.skipValue();
+            while (reader.getDepth() >= depth) {
+                reader.next();
+            }
+            walk.error(InstanceValidator.invalidEmptyMessage(leaf), offset);
+            return null;
+        }
+        if (token == JsonStreamReader.BEGIN_OBJECT || token == JsonStreamReader.BEGIN_ARRAY) {
+            reader.skipValue();
+            walk.error("Expected a scalar value for '" + leaf.name + "'", offset);
+            return null;
+        }
+        Object value = reader.value();
+        if (!leaf.checker.check(value)) {
+            walk.error(InstanceValidator.invalidValueMessage(value, leaf), offset);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,286 @@
+import model.SchemaIndex;
+import model.YangModule;
+import model.YangNode;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Validates newline-delimited JSON telemetry updates against a module.
+ *
+ * Each line is one update of the form
+ *
+ *   {"path": "/example:interfaces/interface[name=eth0]/mtu", "value": 1500}
+ *
+ * where value is the RFC 7951 data of the addressed node (a single entry
+ * when the last segment selects a list entry). The path is reduced to a
+ * schema path by dropping prefixes and [key=value] predicates in one pass
+ * and resolved through the module's SchemaIndex, so no tree is walked per
+ * update. Each predicate must name a key of its list, and the key leaves
+ * of an entry value must match the predicates that select it. Counters
+ * are kept for throughput and error-rate reporting.
+ */
+public class TelemetryValidator {
+    private final SchemaIndex index;
+    private final InstanceValidator validator;
+    private final StringBuilder scratch = new StringBuilder(128);
+    // Predicates of the current path: schema path length at their segment, key, value (null if malformed)
+    private final List<Integer> predicateEnds = new ArrayList<>();
+    private final List<String> predicateKeys = new ArrayList<>();
+    private final List<String> predicateValues = new ArrayList<>();
+
+    private long updates;
+    private long invalidUpdates;
+    private long errors;
+    private long unknownPaths;
+    private long malformedLines;
+    private long bytes;
+    private long nanos;
+
+    public TelemetryValidator(YangModule module) {
+        this(module, new InstanceValidator(module));
+    }
+
+    public TelemetryValidator(YangModule module, InstanceValidator validator) {
+        this.index = module.getSchemaIndex();
+        this.validator = validator;
+    }
+
+    /**
+     * Validates every line of in, handing each problem to listener. Blank
+     * lines are ignored. Bytes are counted as UTF-8, one per line break.
+     */
+    public void validate(BufferedReader in, Consumer<InstanceError> listener) throws IOException {
+        long start = System.nanoTime();
+        String line;
+        try {
+            while ((line = in.readLine()) != null) {
+                bytes += utf8Length(line) + 1;
+                if (!line.isEmpty()) {
+                    validateLine(line, listener);
+                }
+            }
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    /** Validates one NDJSON line. Returns false if it had any problem. */
+    public boolean validateLine(String line, Consumer<InstanceError> listener) {
+        updates++;
+        JSONObject update;
+        try {
+            update = new JSONObject(line);
+        } catch (JSONException e) {
+            malformedLines++;
+            return reject(listener, new InstanceError("", "Malformed update: " + e.getMessage()));
+        }
+
+        String path = update.optString("path", null);
+        if (path == null || !update.has("value")) {
+            malformedLines++;
+            return reject(listener, new InstanceError(path == null ? "" : path, "Update needs \"path\" and \"value\""));
+        }
+
+        boolean entry = schemaPath(path);
+        YangNode node = index.find(scratch.toString());
+        if (node == null) {
+            unknownPaths++;
+            return reject(listener, new InstanceError(path, "Unknown schema path"));
+        }
+
+        Object value = update.opt("value");
+        List<InstanceError> found = validator.validateNode(node, value, entry, path);
+        if (!predicateKeys.isEmpty()) {
+            found = new ArrayList<>(found);
+            checkPredicates(path, entry ? node : null, value, found);
+        }
+        if (found.isEmpty()) {
+            return true;
+        }
+        invalidUpdates++;
+        errors += found.size();
+        for (InstanceError error : found) {
+            listener.accept(error);
+        }
+        return false;
+    }
+
+    private boolean reject(Consumer<InstanceError> listener, InstanceError error) {
+        invalidUpdates++;
+        errors++;
+        listener.accept(error);
+        return false;
+    }
+
+    /**
+     * Checks every predicate against the key list of the list it selects
+     * and, when the update is a single entry, against the key leaves of
+     * the entry's value.
+     */
+    private void checkPredicates(String path, YangNode entryNode, Object value, List<InstanceError> found) {
+        YangNode list = null;
+        int listEnd = -1;
+        for (int p = 0; p < predicateKeys.size(); p++) {
+            String key = predicateKeys.get(p);
+            if (predicateValues.get(p) == null) {
+                found.add(new InstanceError(path, "Malformed predicate '[" + key + "]'"));
+                continue;
+            }
+            int end = predicateEnds.get(p);
+            if (end != listEnd) {
+                listEnd = end;
+                list = index.find(scratch.substring(0, end));
+                if (list != null && !"list".equals(list.getType())) {
+                    found.add(new InstanceError(path, "Predicate on '" + list.getName() + "', which is not a list"));
+                }
+            }
+            if (list == null || !"list".equals(list.getType())) {
+                continue;
+            }
+            if (!list.getKeys().contains(key)) {
+                found.add(new InstanceError(path, "Predicate '" + key + "' is not a key of list '" + list.getName() + "'"));
+            } else if (list == entryNode && value instanceof JSONObject) {
+                Object actual = ((JSONObject) value).opt(key);
+                if (actual != null && !predicateValues.get(p).equals(String.valueOf(actual))) {
+                    found.add(new InstanceError(path, "Key '" + key + "' is '" + actual
+                            + "' but the path selects '" + predicateValues.get(p) + "'"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Leaves the schema path of an instance path in scratch, e.g.
+     * "/ex:interfaces/interface[name=eth0]/mtu" becomes
+     * "/interfaces/interface/mtu", and its predicates in the predicate
+     * lists. Returns true if the last segment had a predicate, i.e.
+     * addresses a single list entry.
+     */
+    private boolean schemaPath(String path) {
+        StringBuilder sb = scratch;
+        sb.setLength(0);
+        predicateEnds.clear();
+        predicateKeys.clear();
+        predicateValues.clear();
+        boolean predicate = false;
+        int segmentStart = 0;
+        int i = 0;
+        int n = path.length();
+        while (i < n) {
+            char c = path.charAt(i);
+            if (c == '/') {
+                sb.append('/');
+                segmentStart = sb.length();
+                predicate = false;
+                i++;
+            } else if (c == ':') {
+                sb.setLength(segmentStart); // drop the module prefix
+                i++;
+            } else if (c == '[') {
+                i = predicate(path, i + 1, sb.length());
+                predicate = true;
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+        return predicate;
+    }
+
+    // Records one "[key=value]" starting after the '['; returns the index after its ']'
+    private int predicate(String path, int i, int segmentEnd) {
+        int n = path.length();
+        int equals = -1;
+        int start = i;
+        String value = null;
+        while (i < n && path.charAt(i) != ']') {
+            char c = path.charAt(i);
+            if (equals < 0 && c == '=') {
+                equals = i;
+                i++;
+                while (i < n && path.charAt(i) == ' ') {
+                    i++;
+                }
+                if (i < n && (path.charAt(i) == '\'' || path.charAt(i) == '"')) {
+                    // Quoted values may contain ']'
+                    int close = path.indexOf(path.charAt(i), i + 1);
+                    if (close < 0) {
+                        i = n;
+                        break;
+                    }
+                    value = path.substring(i + 1, close);
+                    i = close + 1;
+                } else {
+                    int valueStart = i;
+                    while (i < n && path.charAt(i) != ']') {
+                        i++;
+                    }
+                    value = path.substring(valueStart, i).trim();
+                }
+            } else {
+                i++;
+            }
+        }
+        String key = path.substring(start, equals < 0 ? Math.min(i, n) : equals).trim();
+        predicateEnds.add(segmentEnd);
+        predicateKeys.add(equals < 0 ? key : key.substring(key.indexOf(':') + 1));
+        predicateValues.add(i < n ? value : null);
+        return i < n ? i + 1 : n;
+    }
+
+    private static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                length += 4; // with the low surrogate that follows
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    public long getUpdates() { return updates; }
+
+    public long getInvalidUpdates() { return invalidUpdates; }
+
+    public long getErrors() { return errors; }
+
+    public long getUnknownPaths() { return unknownPaths; }
+
+    public long getMalformedLines() { return malformedLines; }
+
+    /** UTF-8 bytes read by validate(). */
+    public long getBytes() { return bytes; }
+
+    public long getElapsedNanos() { return nanos; }
+
+    /** Updates per second over the time spent in validate(). */
+    public double getThroughput() {
+        return nanos == 0 ? 0 : updates / (nanos / 1e9);
+    }
+
+    /** Fraction of updates that had at least one problem. */
+    public double getErrorRate() {
+        return updates == 0 ? 0 : (double) invalidUpdates / updates;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Updates: %d (%d invalid, %.3f%% error rate), errors: %d, unknown paths: %d, malformed: %d%n"
+                        + "Throughput: %,.0f updates/s, %.1f MB/s",
+                updates, invalidUpdates, getErrorRate() * 100, errors, unknownPaths, malformedLines,
+                getThroughput(), nanos == 0 ? 0 : bytes / (nanos / 1e9) / (1 << 20));
+    }
+}
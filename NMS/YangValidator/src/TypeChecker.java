@@ -0,0 +1,11 @@
+/**
+ * Checks one JSON value (as produced by org.json) against a compiled leaf
+ * type. Implementations are immutable and thread-safe.
+ */
+public interface TypeChecker {
+
+    boolean check(Object value);
+
+    /** The type as written in the schema, e.g. "uint16 {range 1..9000}". */
+    String describe();
+}
@@ -0,0 +1,460 @@
+import model.ResolvedType;
+import model.YangNode;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles a leaf's type and its range / length / pattern restrictions
+ * into a TypeChecker.
+ *
+ * Each built-in type family gets its own final checker class holding its
+ * bounds as primitive arrays, so checking a value is a single virtual call
+ * with no string comparison and, for the common cases, no allocation.
+ * A leaf whose type is a typedef is compiled from the typedef's resolved
+ * base type and merged restrictions. Types that are not checked yet
+ * (enumerations, unions, ...) accept any scalar.
+ */
+public final class TypeCheckers {
+    private static final BigInteger UINT64_MAX = new BigInteger("18446744073709551615");
+
+    private TypeCheckers() {
+    }
+
+    public static TypeChecker compile(YangNode leaf) {
+        return compile(leaf.getDataType(), leaf.getRange(), leaf.getLength(), leaf.getPatterns());
+    }
+
+    /**
+     * Compiles a leaf whose type resolved to typedef; restrictions on the
+     * leaf's own type statement narrow the typedef's.
+     */
+    public static TypeChecker compile(YangNode leaf, ResolvedType typedef) {
+        if (typedef == null) {
+            return compile(leaf);
+        }
+        List<String> patterns = typedef.getPatterns();
+        if (!leaf.getPatterns().isEmpty()) {
+            patterns = new ArrayList<>(patterns);
+            patterns.addAll(leaf.getPatterns());
+        }
+        return compile(typedef.getBaseType(),
+                leaf.getRange() != null ? leaf.getRange() : typedef.getRange(),
+                leaf.getLength() != null ? leaf.getLength() : typedef.getLength(),
+                patterns, leaf.getDataType());
+    }
+
+    public static TypeChecker compile(String dataType, String range, String length, List<String> patterns) {
+        return compile(dataType, range, length, patterns, null);
+    }
+
+    private static TypeChecker compile(String dataType, String range, String length, List<String> patterns,
+                                       String typedefName) {
+        String description = describe(dataType, range, length, patterns);
+        if (typedefName != null) {
+            description = typedefName + " (" + description + ")";
+        }
+        if (dataType == null) {
+            return new AnyChecker(description);
+        }
+        switch (dataType) {
+            case "string":
+                return new StringChecker(description, parseLongRanges(length, 0, Long.MAX_VALUE), compilePatterns(patterns));
+            case "boolean":
+                return new BooleanChecker(description);
+            case "empty":
+                return new EmptyChecker(description);
+            case "int8": return integer(description, range, Byte.MIN_VALUE, Byte.MAX_VALUE);
+            case "int16": return integer(description, range, Short.MIN_VALUE, Short.MAX_VALUE);
+            case "int32": return integer(description, range, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            case "uint8": return integer(description, range, 0, 255);
+            case "uint16": return integer(description, range, 0, 65535);
+            case "uint32": return integer(description, range, 0, 4294967295L);
+            case "int64":
+                return new Int64Checker(description, parseLongRanges(range, Long.MIN_VALUE, Long.MAX_VALUE));
+            case "uint64":
+                return new Uint64Checker(description, parseUnsignedRanges(range));
+            case "decimal64":
+                return new Decimal64Checker(description, parseDoubleRanges(range));
+            default:
+                return new AnyChecker(description);
+        }
+    }
+
+    private static TypeChecker integer(String description, String range, long min, long max) {
+        return new IntegerChecker(description, parseLongRanges(range, min, max));
+    }
+
+    static String describe(String dataType, String range, String length, List<String> patterns) {
+        if (dataType == null) {
+            return "value";
+        }
+        if (range == null && length == null && patterns.isEmpty()) {
+            return dataType;
+        }
+        StringBuilder sb = new StringBuilder(dataType).append(" {");
+        if (range != null) sb.append("range ").append(range).append("; ");
+        if (length != null) sb.append("length ").append(length).append("; ");
+        for (String pattern : patterns) {
+            sb.append("pattern ").append(pattern).append("; ");
+        }
+        sb.setLength(sb.length() - 1);
+        return sb.append('}').toString();
+    }
+
+    private static boolean isScalar(Object value) {
+        return value != null && value != JSONObject.NULL
+                && !(value instanceof JSONObject) && !(value instanceof JSONArray);
+    }
+
+    private static boolean inRanges(long v, long[] ranges) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (v >= ranges[i] && v <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // --- checkers -----------------------------------------------------------
+
+    static final class AnyChecker implements TypeChecker {
+        private final String description;
+
+        AnyChecker(String description) { this.description = description; }
+
+        @Override
+        public boolean check(Object value) { return isScalar(value); }
+
+        @Override
+        public String describe() { return description; }
+    }
+
+    static final class BooleanChecker implements TypeChecker {
+        private final String description;
+
+        BooleanChecker(String description) { this.description = description; }
+
+        @Override
+        public boolean check(Object value) { return value instanceof Boolean; }
+
+        @Override
+        public String describe() { return description; }
+    }
+
+    /** RFC 7951 encodes empty as [null]. */
+    static final class EmptyChecker implements TypeChecker {
+        private final String description;
+
+        EmptyChecker(String description) { this.description = description; }
+
+        @Override
+        public boolean check(Object value) {
+            return value instanceof JSONArray && ((JSONArray) value).length() == 1
+                    && JSONObject.NULL.equals(((JSONArray) value).opt(0));
+        }
+
+        @Override
+        public String describe() { return description; }
+    }
+
+    static final class StringChecker implements TypeChecker {
+        private final String description;
+        private final long[] lengths; // inclusive [min, max] pairs, in characters
+        private final Pattern[] patterns;
+        // Matchers are reset rather than re-created for every value
+        private final ThreadLocal<Matcher[]> matchers;
+
+        StringChecker(String description, long[] lengths, Pattern[] patterns) {
+            this.description = description;
+            this.lengths = lengths;
+            this.patterns = patterns;
+            this.matchers = ThreadLocal.withInitial(() -> {
+                Matcher[] m = new Matcher[patterns.length];
+                for (int i = 0; i < m.length; i++) {
+                    m[i] = patterns[i].matcher("");
+                }
+                return m;
+            });
+        }
+
+        @Override
+        public boolean check(Object value) {
+            if (!(value instanceof String)) {
+                return false;
+            }
+            String s = (String) value;
+            if (lengths.length > 0 && !inRanges(s.codePointCount(0, s.length()), lengths)) {
+                return false;
+            }
+            if (patterns.length > 0) {
+                for (Matcher matcher : matchers.get()) {
+                    if (!matcher.reset(s).matches()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String describe() { return description; }
+    }
+
+    /** int8..int32 and uint8..uint32: a JSON number within range. */
+    static final class IntegerChecker implements TypeChecker {
+        private final String description;
+        private final long[] ranges;
+
+        IntegerChecker(String description, long[] ranges) {
+            this.description = description;
+            this.ranges = ranges;
+        }
+
+        @Override
+        public boolean check(Object value) {
+            if (value instanceof Integer || value instanceof Long) {
+                return inRanges(((Number) value).longValue(), ranges);
+            }
+            if (value instanceof BigDecimal) {
+                // A whole number written with a fraction or exponent, e.g. 1.0 or 1e3
+                try {
+                    return inRanges(((BigDecimal) value).longValueExact(), ranges);
+                } catch (ArithmeticException e) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() { return description; }
+    }
+
+    /** int64: a JSON string per RFC 7951; plain numbers are tolerated. */
+    static final class Int64Checker implements TypeChecker {
+        private final String description;
+        private final long[] ranges;
+
+        Int64Checker(String description, long[] ranges) {
+            this.description = description;
+            this.ranges = ranges;
+        }
+
+        @Override
+        public boolean check(Object value) {
+            if (value instanceof Integer || value instanceof Long) {
+                return inRanges(((Number) value).longValue(), ranges);
+            }
+            if (value instanceof String) {
+                try {
+                    return inRanges(Long.parseLong((String) value), ranges);
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() { return description; }
+    }
+
+    /** uint64: like int64, with bounds compared as unsigned longs. */
+    static final class Uint64Checker implements TypeChecker {
+        private final String description;
+        private final long[] ranges;
+
+        Uint64Checker(String description, long[] ranges) {
+            this.description = description;
+            this.ranges = ranges;
+        }
+
+        @Override
+        public boolean check(Object value) {
+            if (value instanceof Integer || value instanceof Long) {
+                long v = ((Number) value).longValue();
+                return v >= 0 && inUnsignedRanges(v);
+            }
+            if (value instanceof BigInteger) {
+                BigInteger v = (BigInteger) value;
+                return v.signum() >= 0 && v.compareTo(UINT64_MAX) <= 0 && inUnsignedRanges(v.longValue());
+            }
+            if (value instanceof String) {
+                String s = (String) value;
+                if (s.isEmpty() || s.charAt(0) == '-' || s.charAt(0) == '+') {
+                    return false;
+                }
+                try {
+                    return inUnsignedRanges(Long.parseUnsignedLong(s));
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+            return false;
+        }
+
+        private boolean inUnsignedRanges(long v) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (Long.compareUnsigned(v, ranges[i]) >= 0 && Long.compareUnsigned(v, ranges[i + 1]) <= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String describe() { return description; }
+    }
+
+    /** decimal64: a JSON string per RFC 7951; plain numbers are tolerated. */
+    static final class Decimal64Checker implements TypeChecker {
+        private final String description;
+        private final double[] ranges; // empty when unrestricted
+
+        Decimal64Checker(String description, double[] ranges) {
+            this.description = description;
+            this.ranges = ranges;
+        }
+
+        @Override
+        public boolean check(Object value) {
+            if (value instanceof Number) {
+                return inRanges(((Number) value).doubleValue());
+            }
+            if (value instanceof String) {
+                String s = (String) value;
+                if (!isDecimal(s)) {
+                    return false;
+                }
+                return ranges.length == 0 || inRanges(Double.parseDouble(s));
+            }
+            return false;
+        }
+
+        private boolean inRanges(double v) {
+            if (ranges.length == 0) {
+                return true;
+            }
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (v >= ranges[i] && v <= ranges[i + 1]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Optional sign, digits, optional fraction; no exponent
+        private static boolean isDecimal(String s) {
+            int i = 0;
+            int n = s.length();
+            if (i < n && (s.charAt(i) == '-' || s.charAt(i) == '+')) i++;
+            int digits = 0;
+            while (i < n && Character.isDigit(s.charAt(i))) { i++; digits++; }
+            if (i < n && s.charAt(i) == '.') {
+                i++;
+                while (i < n && Character.isDigit(s.charAt(i))) { i++; digits++; }
+            }
+            return digits > 0 && i == n;
+        }
+
+        @Override
+        public String describe() { return description; }
+    }
+
+    // --- restriction parsing ------------------------------------------------
+
+    /**
+     * Parses "1..10 | 20 | 30..max" into inclusive [min, max] pairs, with
+     * "min" / "max" standing for the type's own bounds. An absent or
+     * malformed restriction yields the type's full range.
+     */
+    static long[] parseLongRanges(String restriction, long typeMin, long typeMax) {
+        if (restriction == null) {
+            return new long[] {typeMin, typeMax};
+        }
+        try {
+            String[] parts = restriction.split("\\|");
+            long[] ranges = new long[parts.length * 2];
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i].trim();
+                int dots = part.indexOf("..");
+                String low = dots >= 0 ? part.substring(0, dots).trim() : part;
+                String high = dots >= 0 ? part.substring(dots + 2).trim() : part;
+                ranges[2 * i] = bound(low, typeMin, typeMax);
+                ranges[2 * i + 1] = bound(high, typeMin, typeMax);
+            }
+            return ranges;
+        } catch (NumberFormatException e) {
+            return new long[] {typeMin, typeMax};
+        }
+    }
+
+    private static long bound(String s, long typeMin, long typeMax) {
+        if ("min".equals(s)) return typeMin;
+        if ("max".equals(s)) return typeMax;
+        return Long.parseLong(s);
+    }
+
+    // uint64 bounds are unsigned longs, "max" being all ones
+    static long[] parseUnsignedRanges(String restriction) {
+        if (restriction == null) {
+            return new long[] {0, -1L};
+        }
+        try {
+            String[] parts = restriction.split("\\|");
+            long[] ranges = new long[parts.length * 2];
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i].trim();
+                int dots = part.indexOf("..");
+                String low = dots >= 0 ? part.substring(0, dots).trim() : part;
+                String high = dots >= 0 ? part.substring(dots + 2).trim() : part;
+                ranges[2 * i] = "min".equals(low) ? 0 : "max".equals(low) ? -1L : Long.parseUnsignedLong(low);
+                ranges[2 * i + 1] = "min".equals(high) ? 0 : "max".equals(high) ? -1L : Long.parseUnsignedLong(high);
+            }
+            return ranges;
+        } catch (NumberFormatException e) {
+            return new long[] {0, -1L};
+        }
+    }
+
+    static double[] parseDoubleRanges(String restriction) {
+        if (restriction == null) {
+            return new double[0];
+        }
+        try {
+            String[] parts = restriction.split("\\|");
+            double[] ranges = new double[parts.length * 2];
+            for (int i = 0; i < parts.length; i++) {
+                String part = parts[i].trim();
+                int dots = part.indexOf("..");
+                String low = dots >= 0 ? part.substring(0, dots).trim() : part;
+                String high = dots >= 0 ? part.substring(dots + 2).trim() : part;
+                ranges[2 * i] = "min".equals(low) ? Double.NEGATIVE_INFINITY : Double.parseDouble(low);
+                ranges[2 * i + 1] = "max".equals(high) ? Double.POSITIVE_INFINITY : Double.parseDouble(high);
+            }
+            return ranges;
+        } catch (NumberFormatException e) {
+            return new double[0];
+        }
+    }
+
+    // Invalid patterns are skipped rather than failing the whole schema
+    private static Pattern[] compilePatterns(List<String> patterns) {
+        List<Pattern> compiled = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            try {
+                compiled.add(Pattern.compile(pattern));
+            } catch (PatternSyntaxException e) {
+                // XSD-only constructs such as \p{IsBasicLatin} have no Java equivalent
+            }
+        }
+        return compiled.toArray(new Pattern[0]);
+    }
+}
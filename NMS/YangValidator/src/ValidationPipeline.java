@@ -0,0 +1,160 @@
+import model.YangModule;
+import org.json.JSONException;
+import org.json.JSONObject;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embeddable java.util.concurrent.Flow pipeline that validates raw
+ * instance documents against a YangModule:
+ *
+ *   Publisher&lt;Document&gt; -&gt; parse stage -&gt; validate stage -&gt; Subscriber&lt;Result&gt;
+ *
+ * Subscribe the pipeline to a publisher of documents and subscribe a
+ * result subscriber to the pipeline. Each stage runs on its own pool of
+ * the configured parallelism and hands results on through a buffer of
+ * bufferSize items (see PipelineStage), so the number of documents held
+ * at any moment is bounded and a slow subscriber throttles the producer.
+ * Results are delivered in document order.
+ *
+ * Call close() after the result subscriber has completed to stop the
+ * pipeline's threads.
+ */
+public class ValidationPipeline implements Flow.Processor<ValidationPipeline.Document, ValidationPipeline.Result>,
+        AutoCloseable {
+
+    /** A raw instance document and a caller-chosen id, e.g. the device name. */
+    public static class Document {
+        private final String id;
+        private final String json;
+
+        public Document(String id, String json) {
+            this.id = id;
+            this.json = json;
+        }
+
+        public String getId() { return id; }
+
+        public String getJson() { return json; }
+    }
+
+    /** Outcome for one document: a parse failure or the validation errors. */
+    public static class Result {
+        private final String id;
+        private final String parseError;
+        private final List<InstanceError> errors;
+
+        Result(String id, String parseError, List<InstanceError> errors) {
+            this.id = id;
+            this.parseError = parseError;
+            this.errors = errors;
+        }
+
+        public String getId() { return id; }
+
+        /** Why the document is not valid JSON, or null. */
+        public String getParseError() { return parseError; }
+
+        public List<InstanceError> getErrors() { return errors; }
+
+        public boolean isValid() { return parseError == null && errors.isEmpty(); }
+    }
+
+    // Output of the parse stage
+    private static class Parsed {
+        final String id;
+        final JSONObject json;
+        final String parseError;
+
+        Parsed(String id, JSONObject json, String parseError) {
+            this.id = id;
+            this.json = json;
+            this.parseError = parseError;
+        }
+    }
+
+    private final ExecutorService parseWorkers;
+    private final ExecutorService validateWorkers;
+    private final ExecutorService delivery;
+    private final PipelineStage<Document, Parsed> parseStage;
+    private final PipelineStage<Parsed, Result> validateStage;
+
+    public ValidationPipeline(YangModule module) {
+        this(module, Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(), 256);
+    }
+
+    public ValidationPipeline(YangModule module, int parseParallelism, int validateParallelism, int bufferSize) {
+        InstanceValidator validator = new InstanceValidator(module);
+
+        this.parseWorkers = Executors.newFixedThreadPool(parseParallelism, daemonThreads("pipeline-parse"));
+        this.validateWorkers = Executors.newFixedThreadPool(validateParallelism, daemonThreads("pipeline-validate"));
+        this.delivery = Executors.newCachedThreadPool(daemonThreads("pipeline-delivery"));
+
+        this.parseStage = new PipelineStage<>(ValidationPipeline::parse, parseParallelism, bufferSize,
+                parseWorkers, delivery);
+        this.validateStage = new PipelineStage<>(parsed -> validate(validator, parsed), validateParallelism, bufferSize,
+                validateWorkers, delivery);
+        parseStage.subscribe(validateStage);
+    }
+
+    private static Parsed parse(Document document) {
+        try {
+            return new Parsed(document.getId(), new JSONObject(document.getJson()), null);
+        } catch (JSONException e) {
+            return new Parsed(document.getId(), null, e.getMessage());
+        }
+    }
+
+    private static Result validate(InstanceValidator validator, Parsed parsed) {
+        if (parsed.json == null) {
+            return new Result(parsed.id, parsed.parseError, Collections.emptyList());
+        }
+        return new Result(parsed.id, null, validator.validate(parsed.json));
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Result> subscriber) {
+        validateStage.subscribe(subscriber);
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        parseStage.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(Document item) {
+        parseStage.onNext(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        parseStage.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        parseStage.onComplete();
+    }
+
+    @Override
+    public void close() {
+        parseWorkers.shutdown();
+        validateWorkers.shutdown();
+        delivery.shutdown();
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
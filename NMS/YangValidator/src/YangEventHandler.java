@@ -0,0 +1,32 @@
+/**
+ * Push-based (SAX-style) receiver for YangParser events.
+ *
+ * Every statement produces exactly one startStatement and one matching
+ * endStatement; substatements of a block statement arrive in between.
+ * A parse that only needs counts, paths or a conversion can therefore run
+ * in memory proportional to nesting depth instead of module size.
+ * All methods default to no-ops so handlers override only what they need.
+ */
+public interface YangEventHandler {
+
+    /**
+     * @param keyword statement keyword, e.g. "leaf" or "ex:annotation"
+     * @param argument argument text, or null when the statement has none
+     * @param line line the keyword appears on
+     */
+    default void startStatement(String keyword, String argument, int line) {}
+
+    /**
+     * Lets a handler skip argument decoding for statements it does not
+     * inspect; startStatement then receives a null argument.
+     */
+    default boolean wantsArgument(String keyword) { return true; }
+
+    default void endStatement(String keyword, int line) {}
+
+    /** A syntax problem found while reading the input. */
+    default void diagnostic(Diagnostic diagnostic) {}
+
+    /** Called once after the last statement has ended. */
+    default void endDocument() {}
+}
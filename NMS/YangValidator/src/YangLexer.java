@@ -0,0 +1,454 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Single-pass, statement-aware YANG tokenizer.
+ *
+ * Produces a flat stream of KEYWORD / ARGUMENT / BLOCK_START / BLOCK_END /
+ * STATEMENT_END tokens, so callers can dispatch on the keyword once per
+ * statement instead of running every line through a regex cascade.
+ *
+ * The lexer is tolerant of the common authoring mistakes the validator has
+ * to report: when a statement is missing its terminating ';' (the next word
+ * starts on a later line, or a '}' follows directly) a synthetic
+ * STATEMENT_END is returned and {@link #isRecovered()} is set.
+ *
+ * Input is scanned as raw UTF-8 bytes. Every YANG delimiter is ASCII and
+ * UTF-8 never uses ASCII bytes inside multi-byte sequences, so no decoding
+ * is needed until a consumer asks for a token's text. Large files can be
+ * scanned straight from a memory mapping (see {@link #mapFile}).
+ */
+public class YangLexer {
+    public static final int EOF = 0;
+    public static final int KEYWORD = 1;
+    public static final int ARGUMENT = 2;
+    public static final int BLOCK_START = 3;
+    public static final int BLOCK_END = 4;
+    public static final int STATEMENT_END = 5;
+
+    // fromFile maps files at least this large instead of reading them onto the heap
+    private static final long MAP_THRESHOLD = 4 * 1024 * 1024;
+
+    // Keywords handed out as shared constants instead of freshly decoded strings
+    private static final String[] COMMON_KEYWORDS = {
+        "module", "namespace", "prefix", "import", "revision", "organization", "contact",
+        "description", "reference", "container", "leaf", "leaf-list", "list", "key",
+        "type", "mandatory", "default", "config", "units", "typedef", "grouping", "uses",
+        "augment", "deviation", "deviate", "enum", "range", "length", "pattern", "must", "when"
+    };
+    // COMMON_KEYWORDS indexes bucketed by keyword length
+    private static final int[][] KEYWORDS_BY_LENGTH = new int[16][];
+    static {
+        for (int len = 0; len < KEYWORDS_BY_LENGTH.length; len++) {
+            int count = 0;
+            for (String k : COMMON_KEYWORDS) {
+                if (k.length() == len) count++;
+            }
+            KEYWORDS_BY_LENGTH[len] = new int[count];
+            count = 0;
+            for (int i = 0; i < COMMON_KEYWORDS.length; i++) {
+                if (COMMON_KEYWORDS[i].length() == len) KEYWORDS_BY_LENGTH[len][count++] = i;
+            }
+        }
+    }
+
+    private final ByteBuffer buf;
+    private final int limit;
+    private int pos;
+    private int line = 1;
+    private byte[] scratch;
+
+    // Current token
+    private int type = EOF;
+    private int tokenLine;
+    private int start;
+    private int end;
+    private boolean quoted;
+    private boolean recovered;
+    private boolean unterminated;
+    private byte unknownEscape;
+    private int unknownEscapeLine;
+    private String text;
+    private ByteArrayOutputStream quotedBytes;
+
+    // Statement state
+    private boolean expectKeyword = true;
+    private int argumentCount;
+    private int lastTokenLine;
+
+    /**
+     * @param buf UTF-8 encoded input between its position and limit
+     */
+    public YangLexer(ByteBuffer buf) {
+        this.buf = buf;
+        this.pos = buf.position();
+        this.limit = buf.limit();
+        // Skip a UTF-8 byte order mark
+        if (limit - pos >= 3 && buf.get(pos) == (byte) 0xEF
+                && buf.get(pos + 1) == (byte) 0xBB && buf.get(pos + 2) == (byte) 0xBF) {
+            pos += 3;
+        }
+    }
+
+    public YangLexer(byte[] utf8) {
+        this(ByteBuffer.wrap(utf8));
+    }
+
+    public YangLexer(String source) {
+        this(source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Opens a file, memory-mapping it when it is large enough for the
+     * mapping to pay off and reading it onto the heap otherwise.
+     */
+    public static YangLexer fromFile(String filePath) throws IOException {
+        Path path = Paths.get(filePath);
+        if (Files.size(path) >= MAP_THRESHOLD) {
+            return mapFile(path);
+        }
+        return new YangLexer(Files.readAllBytes(path));
+    }
+
+    /**
+     * Scans the file directly from a read-only memory mapping. The mapping
+     * stays valid after the channel is closed and is released by the GC.
+     */
+    public static YangLexer mapFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map (" + size + " bytes): " + path);
+            }
+            return new YangLexer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Advances to the next token and returns its type.
+     */
+    public int next() {
+        text = null;
+        quoted = false;
+        recovered = false;
+        unterminated = false;
+        unknownEscape = 0;
+        quotedBytes = null;
+
+        skipWhitespaceAndComments();
+        tokenLine = line;
+
+        if (pos >= limit) {
+            type = EOF;
+            return type;
+        }
+
+        byte c = buf.get(pos);
+        switch (c) {
+            case '{':
+                pos++;
+                return statementBoundary(BLOCK_START);
+            case ';':
+                pos++;
+                return statementBoundary(STATEMENT_END);
+            case '}':
+                if (!expectKeyword) {
+                    // "type string }" - close the open statement first
+                    return recover();
+                }
+                pos++;
+                return statementBoundary(BLOCK_END);
+            default:
+                break;
+        }
+
+        if (expectKeyword) {
+            expectKeyword = false;
+            argumentCount = 0;
+            if (c == '"' || c == '\'') {
+                readQuoted();
+                type = ARGUMENT;
+                argumentCount++;
+            } else {
+                readKeyword();
+                type = KEYWORD;
+            }
+        } else if (argumentCount > 0 && line > lastTokenLine) {
+            // A new word on a later line after a complete argument
+            return recover();
+        } else {
+            if (c == '"' || c == '\'') {
+                readQuoted();
+            } else {
+                readUnquoted();
+            }
+            type = ARGUMENT;
+            argumentCount++;
+        }
+        lastTokenLine = line;
+        return type;
+    }
+
+    private int statementBoundary(int tokenType) {
+        expectKeyword = true;
+        type = tokenType;
+        lastTokenLine = line;
+        return type;
+    }
+
+    private int recover() {
+        expectKeyword = true;
+        recovered = true;
+        tokenLine = lastTokenLine;
+        type = STATEMENT_END;
+        return type;
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (pos < limit) {
+            byte c = buf.get(pos);
+            if (c == '\n') {
+                line++;
+                pos++;
+            } else if (c == ' ' || c == '\t' || c == '\r') {
+                pos++;
+            } else if (c == '/' && pos + 1 < limit && buf.get(pos + 1) == '/') {
+                while (pos < limit && buf.get(pos) != '\n') {
+                    pos++;
+                }
+            } else if (c == '/' && pos + 1 < limit && buf.get(pos + 1) == '*') {
+                pos += 2;
+                while (pos < limit && !(buf.get(pos) == '*' && pos + 1 < limit && buf.get(pos + 1) == '/')) {
+                    if (buf.get(pos) == '\n') line++;
+                    pos++;
+                }
+                pos = Math.min(pos + 2, limit);
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void readKeyword() {
+        start = pos;
+        while (pos < limit) {
+            byte c = buf.get(pos);
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n'
+                    || c == ';' || c == '{' || c == '}' || c == '"' || c == '\'') {
+                break;
+            }
+            pos++;
+        }
+        end = pos;
+    }
+
+    /**
+     * Unquoted arguments run to the next terminator or end of line, so an
+     * unquoted multi-word description is still captured as one argument.
+     */
+    private void readUnquoted() {
+        start = pos;
+        while (pos < limit) {
+            byte c = buf.get(pos);
+            if (c == ';' || c == '{' || c == '}' || c == '\n' || c == '\r') {
+                break;
+            }
+            if (c == '/' && pos + 1 < limit && (buf.get(pos + 1) == '/' || buf.get(pos + 1) == '*')) {
+                break;
+            }
+            pos++;
+        }
+        end = pos;
+        while (end > start && (buf.get(end - 1) == ' ' || buf.get(end - 1) == '\t')) {
+            end--;
+        }
+    }
+
+    /**
+     * Reads a quoted string, including any "a" + "b" concatenation.
+     * Simple strings stay a slice of the input; escapes and concatenation
+     * are collected into a byte buffer.
+     */
+    private void readQuoted() {
+        quoted = true;
+        ByteArrayOutputStream joined = null;
+        readQuotedPart();
+
+        while (!unterminated) {
+            int save = pos;
+            int saveLine = line;
+            skipWhitespaceAndComments();
+            if (pos < limit && buf.get(pos) == '+') {
+                pos++;
+                skipWhitespaceAndComments();
+                if (pos < limit && (buf.get(pos) == '"' || buf.get(pos) == '\'')) {
+                    if (joined == null) {
+                        joined = appendPart(new ByteArrayOutputStream());
+                    }
+                    readQuotedPart();
+                    appendPart(joined);
+                    continue;
+                }
+            }
+            pos = save;
+            line = saveLine;
+            break;
+        }
+
+        if (joined != null) {
+            quotedBytes = joined;
+        }
+    }
+
+    private ByteArrayOutputStream appendPart(ByteArrayOutputStream out) {
+        if (quotedBytes != null) {
+            out.writeBytes(quotedBytes.toByteArray());
+        } else {
+            copy(start, end, out);
+        }
+        return out;
+    }
+
+    private void readQuotedPart() {
+        byte quote = buf.get(pos++);
+        start = pos;
+        quotedBytes = null;
+        while (pos < limit) {
+            byte c = buf.get(pos);
+            if (c == quote) {
+                end = pos;
+                pos++;
+                if (quotedBytes != null) {
+                    copy(start, end, quotedBytes);
+                }
+                return;
+            }
+            if (c == '\n') {
+                line++;
+            } else if (c == '\\' && quote == '"' && pos + 1 < limit) {
+                byte e = buf.get(pos + 1);
+                if (e == 'n' || e == 't' || e == '"' || e == '\\') {
+                    if (quotedBytes == null) quotedBytes = new ByteArrayOutputStream();
+                    copy(start, pos, quotedBytes);
+                    quotedBytes.write(e == 'n' ? '\n' : e == 't' ? '\t' : e);
+                    pos += 2;
+                    start = pos;
+                    continue;
+                }
+                // Other escapes keep their backslash (YANG 1.0; an error in 1.1)
+                if (unknownEscape == 0) {
+                    unknownEscape = e;
+                    unknownEscapeLine = line;
+                }
+            }
+            pos++;
+        }
+        end = pos;
+        unterminated = true;
+        if (quotedBytes != null) {
+            copy(start, end, quotedBytes);
+        }
+    }
+
+    private void copy(int from, int to, ByteArrayOutputStream out) {
+        int length = to - from;
+        if (buf.hasArray()) {
+            out.write(buf.array(), buf.arrayOffset() + from, length);
+        } else {
+            byte[] bytes = scratch(length);
+            buf.get(from, bytes, 0, length);
+            out.write(bytes, 0, length);
+        }
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch == null || scratch.length < length) {
+            scratch = new byte[Math.max(length, 256)];
+        }
+        return scratch;
+    }
+
+    private String decode(int from, int to) {
+        int length = to - from;
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + from, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = scratch(length);
+        buf.get(from, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public int getType() { return type; }
+
+    /** Line on which the current token starts (1-based). */
+    public int getLine() { return tokenLine; }
+
+    /**
+     * Text of the current KEYWORD or ARGUMENT token, decoded on demand.
+     * Common keywords are returned as shared constants without decoding.
+     */
+    public String text() {
+        if (text == null) {
+            if (type == KEYWORD) {
+                text = commonKeyword();
+                if (text == null) {
+                    text = decode(start, end);
+                }
+            } else if (type == ARGUMENT) {
+                text = quotedBytes != null
+                        ? new String(quotedBytes.toByteArray(), StandardCharsets.UTF_8)
+                        : decode(start, end);
+            }
+        }
+        return text;
+    }
+
+    /** Compares the current token text against an ASCII string without decoding. */
+    public boolean textEquals(String s) {
+        if (text != null || quotedBytes != null) return s.equals(text());
+        int len = end - start;
+        if (len != s.length()) return false;
+        for (int i = 0; i < len; i++) {
+            if (buf.get(start + i) != s.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private String commonKeyword() {
+        int len = end - start;
+        if (len >= KEYWORDS_BY_LENGTH.length) {
+            return null;
+        }
+        for (int k : KEYWORDS_BY_LENGTH[len]) {
+            String candidate = COMMON_KEYWORDS[k];
+            int i = 0;
+            while (i < len && buf.get(start + i) == candidate.charAt(i)) i++;
+            if (i == len) return candidate;
+        }
+        return null;
+    }
+
+    public boolean isQuoted() { return quoted; }
+
+    /** True when the current STATEMENT_END was inserted for a missing ';'. */
+    public boolean isRecovered() { return recovered; }
+
+    /** True when the current quoted ARGUMENT ran into end of input. */
+    public boolean isUnterminated() { return unterminated; }
+
+    /**
+     * The character after the first backslash in the current quoted
+     * ARGUMENT that is not one of \n, \t, \" or \\ (kept as written), or 0.
+     */
+    public char getUnknownEscape() { return (char) (unknownEscape & 0xFF); }
+
+    /** Line of the escape reported by getUnknownEscape(). */
+    public int getUnknownEscapeLine() { return unknownEscapeLine; }
+}
@@ -0,0 +1,304 @@
+import model.TypeResolver;
+import model.YangModule;
+import model.YangNode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+
+/**
+ * YangEventHandler that materializes the YangModule / YangNode tree.
+ *
+ * Typedefs, groupings, top-level augments and deviations are collected on
+ * the module, and uses statements become "uses" nodes (with their refine /
+ * augment statements as children); at the end of the document
+ * GroupingExpander replaces the uses of local groupings.
+ * Groupings and typedefs defined inside another statement are only
+ * visible in that statement's subtree: they stay off the module, and an
+ * unprefixed uses or type is matched against the enclosing statements'
+ * definitions first, innermost scope first, before the module's. A type
+ * naming a nested typedef is linked to it (YangNode.getScopedTypedef()).
+ * Uses of groupings from imported modules are expanded once the imports
+ * are loaded (see ModuleRegistry).
+ */
+public class YangTreeBuilder implements YangEventHandler {
+
+    // One open statement: its keyword, the node it created, if any, and the enclosing statement
+    private static class Scope {
+        final String keyword;
+        final YangNode node;
+        final Scope parent;
+        // Groupings and typedefs defined directly inside this statement, created on the first one
+        Map<String, YangNode> groupings;
+        Map<String, YangNode> typedefs;
+
+        Scope(String keyword, YangNode node, Scope parent) {
+            this.keyword = keyword;
+            this.node = node;
+            this.parent = parent;
+        }
+    }
+
+    private final Stack<Scope> scopes = new Stack<>();
+    private final List<Diagnostic> diagnostics = new ArrayList<>();
+    // Source line of each uses node, for expansion diagnostics
+    private final Map<YangNode, Integer> usesLines = new IdentityHashMap<>();
+    // Statement each unprefixed uses appears in, kept only while nested groupings may match it
+    private final Map<YangNode, Scope> usesScopes = new IdentityHashMap<>();
+    private boolean nestedGroupings;
+    // Likewise for each node whose type may name a nested typedef
+    private final Map<YangNode, Scope> typeScopes = new IdentityHashMap<>();
+    private boolean nestedTypedefs;
+    private final boolean shareGroupings;
+    private YangModule module;
+
+    public YangTreeBuilder() {
+        this(true);
+    }
+
+    /**
+     * @param shareGroupings link one expanded copy of each grouping into the
+     *        tree (the default) rather than copying it for every uses
+     */
+    public YangTreeBuilder(boolean shareGroupings) {
+        this.shareGroupings = shareGroupings;
+    }
+
+    @Override
+    public void startStatement(String keyword, String argument, int line) {
+        Scope scope = scopes.isEmpty() ? null : scopes.peek();
+        YangNode created = null;
+
+        switch (keyword) {
+            case "module":
+                if (module == null && scope == null) {
+                    module = new YangModule(argument);
+                }
+                break;
+            case "namespace":
+                if (isModuleScope(scope) && argument != null) {
+                    module.setNamespace(argument);
+                }
+                break;
+            case "prefix":
+                if (isModuleScope(scope) && argument != null) {
+                    module.setPrefix(argument);
+                } else if (isImportScope(scope) && argument != null && !module.getImports().isEmpty()) {
+                    // The enclosing import is the one added last
+                    module.addImportPrefix(argument, module.getImports().get(module.getImports().size() - 1));
+                }
+                break;
+            case "import":
+                if (isModuleScope(scope) && argument != null) {
+                    module.addImport(argument);
+                }
+                break;
+            case "container":
+            case "leaf":
+            case "leaf-list":
+            case "list":
+                if (module != null && argument != null && scope != null
+                        && (isModuleScope(scope) || scope.node != null)) {
+                    created = new YangNode(argument, keyword);
+                    if (scope.node == null) {
+                        module.addNode(created);
+                    } else {
+                        scope.node.addChild(created);
+                    }
+                }
+                break;
+            case "grouping":
+                if (module != null && argument != null && scope != null
+                        && (isModuleScope(scope) || scope.node != null)) {
+                    created = new YangNode(argument, keyword);
+                    if (scope.node == null) {
+                        module.addGrouping(created);
+                    } else {
+                        if (scope.groupings == null) {
+                            scope.groupings = new HashMap<>();
+                        }
+                        scope.groupings.putIfAbsent(argument, created);
+                        nestedGroupings = true;
+                    }
+                }
+                break;
+            case "typedef":
+                if (module != null && argument != null && scope != null
+                        && (isModuleScope(scope) || scope.node != null)) {
+                    created = new YangNode(argument, keyword);
+                    if (scope.node == null) {
+                        module.addTypedef(created);
+                    } else {
+                        if (scope.typedefs == null) {
+                            scope.typedefs = new HashMap<>();
+                        }
+                        scope.typedefs.putIfAbsent(argument, created);
+                        nestedTypedefs = true;
+                    }
+                }
+                break;
+            case "uses":
+                if (module != null && argument != null && scope != null
+                        && (isModuleScope(scope) || scope.node != null)) {
+                    created = new YangNode(argument, keyword);
+                    usesLines.put(created, line);
+                    if (argument.indexOf(':') < 0) {
+                        usesScopes.put(created, scope);
+                    }
+                    if (scope.node == null) {
+                        module.addNode(created);
+                    } else {
+                        scope.node.addChild(created);
+                    }
+                }
+                break;
+            case "refine":
+            case "augment":
+                if (scope != null && scope.node != null && "uses".equals(scope.node.getType()) && argument != null) {
+                    created = new YangNode(argument, keyword);
+                    scope.node.addChild(created);
+                } else if ("augment".equals(keyword) && isModuleScope(scope) && argument != null) {
+                    created = new YangNode(argument, keyword);
+                    module.addAugment(created);
+                }
+                break;
+            case "deviation":
+                if (isModuleScope(scope) && argument != null) {
+                    created = new YangNode(argument, keyword);
+                    module.addDeviation(created);
+                }
+                break;
+            case "deviate":
+                if (scope != null && scope.node != null && "deviation".equals(scope.node.getType()) && argument != null) {
+                    created = new YangNode(argument, keyword);
+                    scope.node.addChild(created);
+                }
+                break;
+            case "type":
+                if (scope != null && scope.node != null && argument != null) {
+                    scope.node.setDataType(argument);
+                    if (argument.indexOf(':') < 0 && !TypeResolver.isBuiltIn(argument)) {
+                        typeScopes.put(scope.node, scope);
+                    }
+                }
+                break;
+            case "range":
+            case "length":
+            case "pattern":
+                YangNode typed = typedNode(scope);
+                if (typed != null && argument != null) {
+                    if ("range".equals(keyword)) {
+                        typed.setRange(argument);
+                    } else if ("length".equals(keyword)) {
+                        typed.setLength(argument);
+                    } else {
+                        typed.addPattern(argument);
+                    }
+                }
+                break;
+            case "key":
+                if (scope != null && scope.node != null && "list".equals(scope.node.getType())) {
+                    scope.node.setKeys(argument);
+                }
+                break;
+            case "mandatory":
+                if (scope != null && scope.node != null
+                        && ("refine".equals(scope.node.getType()) || "deviate".equals(scope.node.getType()))) {
+                    // Kept as a statement so that "mandatory false" is distinguishable from unset
+                    if (argument != null) {
+                        scope.node.addChild(new YangNode(argument, keyword));
+                    }
+                } else if (scope != null && scope.node != null) {
+                    scope.node.setMandatory("true".equals(argument));
+                }
+                break;
+            case "description":
+                if (scope != null && scope.node != null && argument != null) {
+                    scope.node.setDescription(argument);
+                }
+                break;
+            default:
+                break;
+        }
+
+        scopes.push(new Scope(keyword, created, scope));
+    }
+
+    @Override
+    public void endStatement(String keyword, int line) {
+        if (!scopes.isEmpty()) {
+            scopes.pop();
+        }
+    }
+
+    @Override
+    public void endDocument() {
+        if (module != null && !usesLines.isEmpty()) {
+            new GroupingExpander(shareGroupings, false).expand(module, scopedGroupings(), (uses, message) ->
+                    diagnostics.add(new Diagnostic(Diagnostic.Severity.WARNING, usesLines.getOrDefault(uses, 0), message)));
+        }
+        usesScopes.clear();
+        if (nestedTypedefs) {
+            for (Map.Entry<YangNode, Scope> entry : typeScopes.entrySet()) {
+                entry.getKey().setScopedTypedef(find(entry.getKey().getDataType(), entry.getValue(), false));
+            }
+        }
+        typeScopes.clear();
+    }
+
+    // The nested grouping each uses names, for the uses that name one in an enclosing statement
+    private Map<YangNode, YangNode> scopedGroupings() {
+        Map<YangNode, YangNode> resolved = new IdentityHashMap<>();
+        if (!nestedGroupings) {
+            return resolved;
+        }
+        for (Map.Entry<YangNode, Scope> entry : usesScopes.entrySet()) {
+            YangNode grouping = find(entry.getKey().getName(), entry.getValue(), true);
+            if (grouping != null) {
+                resolved.put(entry.getKey(), grouping);
+            }
+        }
+        return resolved;
+    }
+
+    // The nested grouping or typedef name refers to from inside scope, or null
+    private static YangNode find(String name, Scope scope, boolean grouping) {
+        for (; scope != null; scope = scope.parent) {
+            Map<String, YangNode> definitions = grouping ? scope.groupings : scope.typedefs;
+            YangNode found = definitions == null ? null : definitions.get(name);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void diagnostic(Diagnostic diagnostic) {
+        diagnostics.add(diagnostic);
+    }
+
+    public YangModule getModule() { return module; }
+
+    public ParseResult getResult(String source) {
+        return new ParseResult(source, module, diagnostics);
+    }
+
+    // The leaf or typedef whose type statement is the given scope, if any
+    private YangNode typedNode(Scope scope) {
+        if (scope == null || !"type".equals(scope.keyword) || scopes.size() < 2) {
+            return null;
+        }
+        return scopes.get(scopes.size() - 2).node;
+    }
+
+    private static boolean isModuleScope(Scope scope) {
+        return scope != null && "module".equals(scope.keyword);
+    }
+
+    private boolean isImportScope(Scope scope) {
+        return scope != null && "import".equals(scope.keyword) && module != null && scopes.size() == 2;
+    }
+}
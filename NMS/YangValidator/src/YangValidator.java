@@ -1,6 +1,5 @@
 import model.YangModule;
 import model.YangNode;
-import org.json.JSONObject;
 import java.io.File;
 import java.util.Scanner;
 import java.util.List;
@@ -38,6 +37,9 @@ public class YangValidator {
                     System.out.println("Exiting YANG Validator. Goodbye!");
                     scanner.close();
                     return;
+                case "5":
+                    validateDirectory();
+                    break;
                 default:
                     System.out.println("Invalid choice. Please try again.");
             }
@@ -50,7 +52,8 @@ public class YangValidator {
         System.out.println("2. Extract and display key nodes and relationships");
         System.out.println("3. Convert YANG to JSON");
         System.out.println("4. Exit");
-        System.out.print("Enter your choice (1-4): ");
+        System.out.println("5. Validate all YANG files in a directory");
+        System.out.print("Enter your choice (1-5): ");
     }
     
     private void validateYangFile() {
@@ -78,6 +81,39 @@ public class YangValidator {
         }
     }
     
+    private void validateDirectory() {
+        System.out.print("Enter directory path (leave empty for input/): ");
+        String dirPath = scanner.nextLine().trim();
+        if (dirPath.isEmpty()) {
+            dirPath = "input";
+        }
+        
+        File dir = new File(dirPath);
+        if (!dir.isDirectory()) {
+            System.out.println("Error: Directory not found - " + dirPath);
+            return;
+        }
+        
+        try {
+            System.out.println("\nValidating YANG files under: " + dirPath);
+            BulkResult bulk = new BulkParser(parser).parseDirectory(dir.toPath(), result -> {
+                String status = result.hasErrors()
+                        ? "✗ " + result.getErrors().size() + " error(s)"
+                        : "✓ valid";
+                System.out.println("  " + status + " - " + result.getSource());
+            });
+            
+            System.out.println("\n=== Summary ===");
+            System.out.println("Files: " + bulk.getFileCount() + " (" + bulk.getFailedFileCount() + " with errors)");
+            System.out.println("Modules parsed: " + bulk.getModules().size());
+            System.out.println("Errors: " + bulk.getErrorCount() + ", Warnings: " + bulk.getWarningCount());
+            System.out.println("Time: " + bulk.getElapsedMillis() + " ms");
+            
+        } catch (Exception e) {
+            System.out.println("✗ Bulk validation failed: " + e.getMessage());
+        }
+    }
+    
     private void displayYangStructure() {
         System.out.print("Enter YANG file path (or filename if in input/ folder): ");
         String filePath = scanner.nextLine();
@@ -95,7 +131,14 @@ public class YangValidator {
             }
             
             System.out.println("\nParsing YANG file: " + filePath);
-            YangModule module = parser.parseYangFile(filePath);
+            ParseResult result = parser.parse(filePath);
+            YangParser.printDiagnostics(result);
+            
+            YangModule module = result.getModule();
+            if (module == null) {
+                System.out.println("✗ No module declaration found - nothing to display");
+                return;
+            }
             
             displayModuleInfo(module);
             displayNodes(module.getNodes(), 0);
@@ -106,7 +149,7 @@ public class YangValidator {
         }
     }
     
-    private void displayModuleInfo(YangModule module) {
+    static void displayModuleInfo(YangModule module) {
         System.out.println("\n=== Module Information ===");
         System.out.println("Module Name: " + module.getName());
         System.out.println("Namespace: " + (module.getNamespace() != null ? module.getNamespace() : "Not specified"));
@@ -118,7 +161,7 @@ public class YangValidator {
         System.out.println();
     }
     
-    private void displayNodes(List<YangNode> nodes, int indent) {
+    static void displayNodes(List<YangNode> nodes, int indent) {
         String indentStr = "  ".repeat(indent);
         
         for (YangNode node : nodes) {
@@ -164,22 +207,24 @@ public class YangValidator {
             
             System.out.println("\nConverting YANG to JSON...");
             
-            // Parse YANG file
-            YangModule module = parser.parseYangFile(filePath);
-            
-            // Convert to JSON
-            JSONObject json = converter.convertToJson(module);
+            // Parse and validate YANG file in one pass
+            ParseResult result = parser.parse(filePath);
+            if (result.hasErrors()) {
+                YangParser.printDiagnostics(result);
+                System.out.println("✗ Conversion aborted: fix the errors above first");
+                return;
+            }
+            YangModule module = result.getModule();
             
-            // Save to file
-            converter.saveJsonToFile(json, outputPath);
+            // Stream JSON straight to the file
+            converter.saveJsonToFile(module, outputPath);
             
             System.out.println("✓ Successfully converted to JSON");
             System.out.println("✓ Output saved to: " + outputPath);
             
             // Display a preview
             System.out.println("\n=== JSON Preview (first 500 chars) ===");
-            String jsonString = json.toString(2);
-            System.out.println(jsonString.substring(0, Math.min(jsonString.length(), 500)) + "...");
+            System.out.println(converter.previewJson(module, 2, 500) + "...");
             
         } catch (Exception e) {
             System.out.println("✗ Conversion failed: " + e.getMessage());
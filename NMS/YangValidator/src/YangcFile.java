@@ -0,0 +1,87 @@
+import model.CompactSchema;
+import model.StringTable;
+import model.YangModule;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary form of a parsed YangModule (".yangc").
+ *
+ * Layout: magic "YNGC", int formatVersion, then the module as a
+ * CompactSchema (see CompactSchema.writeTo()): a string table, the node
+ * columns and the restriction and nested typedef side tables. Each
+ * distinct string is stored once, and a child list shared through a
+ * grouping is stored once.
+ *
+ * open() maps the file and reads the schema in place: the columns stay in
+ * the mapping and strings are decoded on first use, so opening costs a few
+ * small objects whatever the module's size, and the heap only holds what
+ * is actually read. load() builds the full YangNode graph from that, for
+ * code that needs a YangModule; it skips the lexer and tree builder but
+ * takes as much heap as a parsed module.
+ */
+public class YangcFile {
+    public static final String EXTENSION = ".yangc";
+
+    private static final int MAGIC = 0x594E4743; // "YNGC"
+    private static final int FORMAT_VERSION = 9;
+
+    /**
+     * Writes module to path in .yangc format.
+     */
+    public static void write(YangModule module, Path path) throws IOException {
+        CompactSchema schema = CompactSchema.fromModule(module, new StringTable());
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            schema.writeTo(out);
+        }
+    }
+
+    /**
+     * Maps a .yangc file read-only and returns the schema in it, backed by
+     * the mapping.
+     */
+    public static CompactSchema open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled YANG file: " + path);
+            }
+            int version = buffer.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported .yangc format version " + version + ": " + path);
+            }
+            return CompactSchema.map(buffer);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException / bad lengths from a truncated or corrupt file
+            throw new IOException("Corrupt compiled YANG file: " + path, e);
+        }
+    }
+
+    /**
+     * Loads a .yangc file and builds the module's node tree from it.
+     */
+    public static YangModule load(Path path) throws IOException {
+        CompactSchema schema = open(path);
+        try {
+            return schema.toModule();
+        } catch (RuntimeException e) {
+            // Indexes out of range
+            throw new IOException("Corrupt compiled YANG file: " + path, e);
+        }
+    }
+}
@@ -0,0 +1,621 @@
+package model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only, struct-of-arrays form of a YangModule.
+ *
+ * Node i is described by the i-th slot of a handful of int columns instead
+ * of a YangNode object with its own children ArrayList: tree links are
+ * parent / firstChild / nextSibling indexes, strings are ids into a string
+ * table, and the node kind and mandatory flag are packed into one int.
+ * Nodes are stored in pre-order. A child list that is the same nodes as
+ * one stored earlier (a grouping body linked under several parents) is
+ * stored once and shared by both parents, whose getParent() is the first;
+ * toModule() links the shared YangNodes again.
+ * The few nodes with type restrictions point into a side table of
+ * (range, length, patterns) string ids rather than widening every node.
+ *
+ * The module's groupings, typedefs, augments and deviations are stored
+ * after the data tree as further sibling chains, one per table, so that
+ * toModule() gives back everything the validator and the registry use.
+ * Typedefs nested in statements come last, in a chain of their own; the
+ * nodes whose type names one are listed, in index order, in a pair of
+ * link columns.
+ *
+ * A schema is either built on the heap by fromModule(), with its strings
+ * in a StringTable, or read by map() straight from a buffer written by
+ * writeTo(), usually a file mapping (see YangcFile): the columns are then
+ * views of the buffer and each string is decoded on first use.
+ */
+public class CompactSchema {
+    public static final int NONE = -1;
+
+    private static final int FLAG_MANDATORY = 1;
+    private static final int KIND_SHIFT = 4; // type string id lives above the flag bits
+
+    // Heap schemas: the shared table; mapped schemas: null, with the encoded strings below
+    private final StringTable strings;
+    private final ByteBuffer stringBytes;
+    private final IntBuffer stringOffsets;
+    private final String[] decoded;
+
+    private final int moduleName;
+    private final int namespace;
+    private final int prefix;
+    private final int[] imports;
+    private final int[] importPrefixes;
+    private final int firstRoot;
+    private final int firstGrouping;
+    private final int firstTypedef;
+    private final int firstAugment;
+    private final int firstDeviation;
+    private final int firstScopedTypedef;
+
+    private final IntBuffer parent;
+    private final IntBuffer firstChild;
+    private final IntBuffer nextSibling;
+    private final IntBuffer name;
+    private final IntBuffer dataType;
+    private final IntBuffer description;
+    private final IntBuffer flags;
+    private final IntBuffer keys;
+    private final IntBuffer restriction;
+    // Per restriction: range, length, first pattern, pattern count
+    private final IntBuffer restrictionData;
+    private final IntBuffer patternData;
+    // Node linkNode[k]'s scoped typedef is linkTarget[k]
+    private final IntBuffer linkNode;
+    private final IntBuffer linkTarget;
+
+    // Header fields in writeTo() order, then the columns
+    private CompactSchema(StringTable strings, ByteBuffer stringBytes, IntBuffer stringOffsets,
+                          int[] header, int[] imports, int[] importPrefixes, IntBuffer[] columns) {
+        this.strings = strings;
+        this.stringBytes = stringBytes;
+        this.stringOffsets = stringOffsets;
+        this.decoded = strings == null ? new String[stringOffsets.limit() - 1] : null;
+        this.moduleName = header[0];
+        this.namespace = header[1];
+        this.prefix = header[2];
+        this.firstRoot = header[3];
+        this.firstGrouping = header[4];
+        this.firstTypedef = header[5];
+        this.firstAugment = header[6];
+        this.firstDeviation = header[7];
+        this.firstScopedTypedef = header[8];
+        this.imports = imports;
+        this.importPrefixes = importPrefixes;
+        int c = 0;
+        this.parent = columns[c++];
+        this.firstChild = columns[c++];
+        this.nextSibling = columns[c++];
+        this.name = columns[c++];
+        this.dataType = columns[c++];
+        this.description = columns[c++];
+        this.flags = columns[c++];
+        this.keys = columns[c++];
+        this.restriction = columns[c++];
+        this.restrictionData = columns[c++];
+        this.patternData = columns[c++];
+        this.linkNode = columns[c++];
+        this.linkTarget = columns[c];
+    }
+
+    /**
+     * Flattens module into a compact schema whose strings are interned in
+     * the given (possibly shared) table.
+     */
+    public static CompactSchema fromModule(YangModule module, StringTable strings) {
+        return new Builder(module, strings).build();
+    }
+
+    // Fills the columns of a heap schema
+    private static final class Builder {
+        private final YangModule module;
+        private final StringTable strings;
+        private int size;
+        private int[] parent;
+        private int[] firstChild;
+        private int[] nextSibling;
+        private int[] name;
+        private int[] dataType;
+        private int[] description;
+        private int[] flags;
+        private int[] keys;
+        private int[] restriction;
+        private int[] restrictionData = new int[0];
+        private int restrictionCount;
+        private int[] patternData = new int[0];
+        private int patternCount;
+        private int[] linkNode = new int[0];
+        private int[] linkTarget = new int[0];
+        private int linkCount;
+        private final List<YangNode> linkTypedefs = new ArrayList<>();
+        // Index of each node filled, and each filled child list by its first node
+        private final Map<YangNode, Integer> filled = new IdentityHashMap<>();
+        private final Map<YangNode, List<YangNode>> childLists = new IdentityHashMap<>();
+
+        Builder(YangModule module, StringTable strings) {
+            this.module = module;
+            this.strings = strings;
+        }
+
+        CompactSchema build() {
+            List<YangNode> groupings = new ArrayList<>(module.getGroupings().values());
+            List<YangNode> typedefs = new ArrayList<>(module.getTypedefs().values());
+            List<YangNode> scopedTypedefs = new ArrayList<>();
+            Set<YangNode> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (List<YangNode> roots : Arrays.asList(module.getNodes(), groupings, typedefs,
+                    module.getAugments(), module.getDeviations())) {
+                findScopedTypedefs(roots, seen, scopedTypedefs);
+            }
+            // Sized for no sharing at all; trimmed below
+            int capacity = countNodes(module.getNodes()) + countNodes(groupings) + countNodes(typedefs)
+                    + countNodes(module.getAugments()) + countNodes(module.getDeviations())
+                    + countNodes(scopedTypedefs);
+            parent = new int[capacity];
+            firstChild = new int[capacity];
+            nextSibling = new int[capacity];
+            name = new int[capacity];
+            dataType = new int[capacity];
+            description = new int[capacity];
+            flags = new int[capacity];
+            keys = new int[capacity];
+            restriction = new int[capacity];
+
+            int[] header = new int[9];
+            header[0] = strings.intern(module.getName());
+            header[1] = strings.intern(module.getNamespace());
+            header[2] = strings.intern(module.getPrefix());
+            header[3] = fill(module.getNodes(), NONE);
+            header[4] = fill(groupings, NONE);
+            header[5] = fill(typedefs, NONE);
+            header[6] = fill(module.getAugments(), NONE);
+            header[7] = fill(module.getDeviations(), NONE);
+            header[8] = fill(scopedTypedefs, NONE);
+            for (int k = 0; k < linkCount; k++) {
+                linkTarget[k] = filled.get(linkTypedefs.get(k));
+            }
+
+            int[] imports = new int[module.getImports().size()];
+            int[] importPrefixes = new int[imports.length];
+            for (int i = 0; i < imports.length; i++) {
+                imports[i] = strings.intern(module.getImports().get(i));
+                importPrefixes[i] = NONE;
+            }
+            for (Map.Entry<String, String> entry : module.getImportPrefixes().entrySet()) {
+                int i = module.getImports().indexOf(entry.getValue());
+                if (i >= 0) {
+                    importPrefixes[i] = strings.intern(entry.getKey());
+                }
+            }
+            IntBuffer[] columns = {
+                    trim(parent, size), trim(firstChild, size), trim(nextSibling, size), trim(name, size),
+                    trim(dataType, size), trim(description, size), trim(flags, size), trim(keys, size),
+                    trim(restriction, size), trim(restrictionData, 4 * restrictionCount),
+                    trim(patternData, patternCount), trim(linkNode, linkCount), trim(linkTarget, linkCount)};
+            return new CompactSchema(strings, null, null, header, imports, importPrefixes, columns);
+        }
+
+        private static IntBuffer trim(int[] column, int length) {
+            return IntBuffer.wrap(column.length == length ? column : Arrays.copyOf(column, length));
+        }
+
+        // Collects, in order, the nested typedefs nodes below roots name, and the ones those name in turn
+        private static void findScopedTypedefs(List<YangNode> roots, Set<YangNode> seen, List<YangNode> found) {
+            for (YangNode node : roots) {
+                YangNode typedef = node.getScopedTypedef();
+                if (typedef != null && seen.add(typedef)) {
+                    found.add(typedef);
+                    findScopedTypedefs(List.of(typedef), seen, found);
+                }
+                findScopedTypedefs(node.getChildren(), seen, found);
+            }
+        }
+
+        private static int countNodes(List<YangNode> nodes) {
+            int count = 0;
+            for (YangNode node : nodes) {
+                count += 1 + countNodes(node.getChildren());
+            }
+            return count;
+        }
+
+        // Writes siblings in pre-order as one chain below parentIndex; returns its first node or NONE
+        private int fill(List<YangNode> siblings, int parentIndex) {
+            int first = NONE;
+            int previous = NONE;
+            for (YangNode node : siblings) {
+                int i = size++;
+                filled.putIfAbsent(node, i);
+                parent[i] = parentIndex;
+                nextSibling[i] = NONE;
+                name[i] = strings.intern(node.getName());
+                dataType[i] = strings.intern(node.getDataType());
+                description[i] = strings.intern(node.getDescription());
+                flags[i] = (strings.intern(node.getType()) << KIND_SHIFT) | (node.isMandatory() ? FLAG_MANDATORY : 0);
+                keys[i] = strings.intern(node.getKeys().isEmpty() ? null : String.join(" ", node.getKeys()));
+                restriction[i] = addRestriction(node);
+                if (node.getScopedTypedef() != null) {
+                    addLink(i, node.getScopedTypedef());
+                }
+
+                if (previous == NONE) {
+                    first = i;
+                } else {
+                    nextSibling[previous] = i;
+                }
+                previous = i;
+
+                firstChild[i] = fillChildren(node.getChildren(), i);
+            }
+            return first;
+        }
+
+        // Reuses the chain of an earlier child list made of the same nodes
+        private int fillChildren(List<YangNode> children, int parentIndex) {
+            if (children.isEmpty()) {
+                return NONE;
+            }
+            List<YangNode> earlier = childLists.get(children.get(0));
+            if (earlier != null && sameNodes(earlier, children)) {
+                return filled.get(children.get(0));
+            }
+            int first = fill(children, parentIndex);
+            if (earlier == null && filled.get(children.get(0)) == first) {
+                childLists.put(children.get(0), children);
+            }
+            return first;
+        }
+
+        private static boolean sameNodes(List<YangNode> a, List<YangNode> b) {
+            if (a.size() != b.size()) {
+                return false;
+            }
+            for (int i = 0; i < a.size(); i++) {
+                if (a.get(i) != b.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void addLink(int node, YangNode typedef) {
+            if (linkCount == linkNode.length) {
+                linkNode = Arrays.copyOf(linkNode, Math.max(8, linkCount * 2));
+                linkTarget = Arrays.copyOf(linkTarget, linkNode.length);
+            }
+            linkNode[linkCount++] = node;
+            linkTypedefs.add(typedef);
+        }
+
+        private int addRestriction(YangNode node) {
+            if (node.getRange() == null && node.getLength() == null && node.getPatterns().isEmpty()) {
+                return NONE;
+            }
+            if (4 * restrictionCount + 4 > restrictionData.length) {
+                restrictionData = Arrays.copyOf(restrictionData, Math.max(16, restrictionData.length * 2));
+            }
+            List<String> patterns = node.getPatterns();
+            if (patternCount + patterns.size() > patternData.length) {
+                patternData = Arrays.copyOf(patternData, Math.max(patternCount + patterns.size(), patternData.length * 2));
+            }
+            int r = restrictionCount++;
+            restrictionData[4 * r] = strings.intern(node.getRange());
+            restrictionData[4 * r + 1] = strings.intern(node.getLength());
+            restrictionData[4 * r + 2] = patternCount;
+            restrictionData[4 * r + 3] = patterns.size();
+            for (String pattern : patterns) {
+                patternData[patternCount++] = strings.intern(pattern);
+            }
+            return r;
+        }
+    }
+
+    /**
+     * Writes this schema in the form map() reads:
+     *
+     *   int stringCount, int[stringCount + 1] byte offsets, UTF-8 bytes
+     *       padded to a multiple of 4
+     *   int moduleName, namespace, prefix, firstRoot, firstGrouping,
+     *       firstTypedef, firstAugment, firstDeviation, firstScopedTypedef
+     *   int importCount, int[importCount] names, int[importCount] prefixes
+     *   per column (parent, firstChild, nextSibling, name, dataType,
+     *       description, flags, keys, restriction, restrictionData,
+     *       patternData, linkNode, linkTarget): int length, int[length]
+     *
+     * All integers are big-endian; strings are ids into the string list,
+     * -1 for null.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int count = stringCount();
+        byte[][] encoded = new byte[count][];
+        int offset = 0;
+        out.writeInt(count);
+        out.writeInt(0);
+        for (int i = 0; i < count; i++) {
+            encoded[i] = string(i).getBytes(StandardCharsets.UTF_8);
+            offset += encoded[i].length;
+            out.writeInt(offset);
+        }
+        for (byte[] bytes : encoded) {
+            out.write(bytes);
+        }
+        for (int pad = offset; pad % 4 != 0; pad++) {
+            out.writeByte(0);
+        }
+
+        for (int field : new int[] {moduleName, namespace, prefix, firstRoot, firstGrouping,
+                firstTypedef, firstAugment, firstDeviation, firstScopedTypedef}) {
+            out.writeInt(field);
+        }
+        out.writeInt(imports.length);
+        for (int imp : imports) {
+            out.writeInt(imp);
+        }
+        for (int imp : importPrefixes) {
+            out.writeInt(imp);
+        }
+        for (IntBuffer column : columns()) {
+            out.writeInt(column.limit());
+            for (int i = 0; i < column.limit(); i++) {
+                out.writeInt(column.get(i));
+            }
+        }
+    }
+
+    /**
+     * Reads a schema written by writeTo() from buffer's position onwards
+     * without copying it: the columns are views of the buffer, which must
+     * not change while the schema is in use. Throws a RuntimeException
+     * (e.g. IndexOutOfBoundsException) if the data is truncated.
+     */
+    public static CompactSchema map(ByteBuffer buffer) {
+        ByteBuffer in = buffer.slice();
+        int count = in.getInt();
+        IntBuffer stringOffsets = ints(in, count + 1);
+        int byteLength = stringOffsets.get(count);
+        ByteBuffer stringBytes = in.slice(in.position(), byteLength);
+        in.position(in.position() + (byteLength + 3) / 4 * 4);
+
+        int[] header = new int[9];
+        for (int i = 0; i < header.length; i++) {
+            header[i] = in.getInt();
+        }
+        int[] imports = new int[in.getInt()];
+        int[] importPrefixes = new int[imports.length];
+        for (int i = 0; i < imports.length; i++) {
+            imports[i] = in.getInt();
+        }
+        for (int i = 0; i < imports.length; i++) {
+            importPrefixes[i] = in.getInt();
+        }
+        IntBuffer[] columns = new IntBuffer[13];
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = ints(in, in.getInt());
+        }
+        return new CompactSchema(null, stringBytes, stringOffsets, header, imports, importPrefixes, columns);
+    }
+
+    // The next length ints of in as a view, advancing past them
+    private static IntBuffer ints(ByteBuffer in, int length) {
+        IntBuffer view = in.slice(in.position(), Math.multiplyExact(length, 4)).asIntBuffer();
+        in.position(in.position() + 4 * length);
+        return view;
+    }
+
+    private IntBuffer[] columns() {
+        return new IntBuffer[] {parent, firstChild, nextSibling, name, dataType, description, flags, keys,
+                restriction, restrictionData, patternData, linkNode, linkTarget};
+    }
+
+    private int stringCount() {
+        return strings != null ? strings.size() : decoded.length;
+    }
+
+    private String string(int id) {
+        if (id == NONE) {
+            return null;
+        }
+        if (strings != null) {
+            return strings.get(id);
+        }
+        // Racing threads decode equal strings; either may be kept
+        String s = decoded[id];
+        if (s == null) {
+            int start = stringOffsets.get(id);
+            byte[] bytes = new byte[stringOffsets.get(id + 1) - start];
+            stringBytes.get(start, bytes);
+            s = new String(bytes, StandardCharsets.UTF_8);
+            decoded[id] = s;
+        }
+        return s;
+    }
+
+    /**
+     * Rebuilds an equivalent, mutable YangModule.
+     */
+    public YangModule toModule() {
+        YangModule module = new YangModule(string(moduleName));
+        module.setNamespace(string(namespace));
+        module.setPrefix(string(prefix));
+        for (int i = 0; i < imports.length; i++) {
+            module.addImport(string(imports[i]));
+            if (importPrefixes[i] != NONE) {
+                module.addImportPrefix(string(importPrefixes[i]), string(imports[i]));
+            }
+        }
+        YangNode[] built = new YangNode[getNodeCount()];
+        for (int i = firstRoot; i != NONE; i = nextSibling.get(i)) {
+            module.addNode(toNode(i, built));
+        }
+        for (int i = firstGrouping; i != NONE; i = nextSibling.get(i)) {
+            module.addGrouping(toNode(i, built));
+        }
+        for (int i = firstTypedef; i != NONE; i = nextSibling.get(i)) {
+            module.addTypedef(toNode(i, built));
+        }
+        for (int i = firstAugment; i != NONE; i = nextSibling.get(i)) {
+            module.addAugment(toNode(i, built));
+        }
+        for (int i = firstDeviation; i != NONE; i = nextSibling.get(i)) {
+            module.addDeviation(toNode(i, built));
+        }
+        for (int i = firstScopedTypedef; i != NONE; i = nextSibling.get(i)) {
+            toNode(i, built);
+        }
+        for (int k = 0; k < linkNode.limit(); k++) {
+            built[linkNode.get(k)].setScopedTypedef(built[linkTarget.get(k)]);
+        }
+        return module;
+    }
+
+    // Nodes of a shared child chain are built once and linked under every parent
+    private YangNode toNode(int i, YangNode[] built) {
+        if (built[i] != null) {
+            return built[i];
+        }
+        YangNode node = new YangNode(getName(i), getKind(i));
+        built[i] = node;
+        node.setDataType(getDataType(i));
+        node.setDescription(getDescription(i));
+        node.setMandatory(isMandatory(i));
+        node.setKeys(getKeys(i));
+        node.setRange(getRange(i));
+        node.setLength(getLength(i));
+        for (String pattern : getPatterns(i)) {
+            node.addPattern(pattern);
+        }
+        for (int c = firstChild.get(i); c != NONE; c = nextSibling.get(c)) {
+            node.addChild(toNode(c, built));
+        }
+        return node;
+    }
+
+    /** The string table of a schema built by fromModule(); null for one read by map(). */
+    public StringTable getStrings() { return strings; }
+
+    public String getModuleName() { return string(moduleName); }
+
+    public String getNamespace() { return string(namespace); }
+
+    public String getPrefix() { return string(prefix); }
+
+    public List<String> getImports() {
+        List<String> result = new ArrayList<>(imports.length);
+        for (int imp : imports) {
+            result.add(string(imp));
+        }
+        return result;
+    }
+
+    /** Nodes in the data tree and in the grouping, typedef, augment, deviation and nested typedef chains. */
+    public int getNodeCount() { return parent.limit(); }
+
+    /** Index of the first top-level node, or NONE for an empty module. */
+    public int getFirstRoot() { return firstRoot; }
+
+    /** First "grouping" node; the groupings are linked through getNextSibling(). */
+    public int getFirstGrouping() { return firstGrouping; }
+
+    /** First "typedef" node; the typedefs are linked through getNextSibling(). */
+    public int getFirstTypedef() { return firstTypedef; }
+
+    /** First top-level "augment" node, linked through getNextSibling(). */
+    public int getFirstAugment() { return firstAugment; }
+
+    /** First "deviation" node, linked through getNextSibling(). */
+    public int getFirstDeviation() { return firstDeviation; }
+
+    /** First typedef nested in a statement, linked through getNextSibling(). */
+    public int getFirstScopedTypedef() { return firstScopedTypedef; }
+
+    public int getParent(int node) { return parent.get(node); }
+
+    public int getFirstChild(int node) { return firstChild.get(node); }
+
+    public int getNextSibling(int node) { return nextSibling.get(node); }
+
+    public String getName(int node) { return string(name.get(node)); }
+
+    /** Node kind as in YangNode.getType(), e.g. "leaf" or "list". */
+    public String getKind(int node) { return string(flags.get(node) >>> KIND_SHIFT); }
+
+    public String getDataType(int node) { return string(dataType.get(node)); }
+
+    public String getDescription(int node) { return string(description.get(node)); }
+
+    /** The nested typedef node's type names (YangNode.getScopedTypedef()), or NONE. */
+    public int getScopedTypedef(int node) {
+        int low = 0;
+        int high = linkNode.limit() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = linkNode.get(mid);
+            if (at < node) {
+                low = mid + 1;
+            } else if (at > node) {
+                high = mid - 1;
+            } else {
+                return linkTarget.get(mid);
+            }
+        }
+        return NONE;
+    }
+
+    public boolean isMandatory(int node) { return (flags.get(node) & FLAG_MANDATORY) != 0; }
+
+    /** Space separated list keys, or null. */
+    public String getKeys(int node) { return string(keys.get(node)); }
+
+    public String getRange(int node) { return restrictionString(node, 0); }
+
+    public String getLength(int node) { return restrictionString(node, 1); }
+
+    /** Pattern restrictions, in order; empty if there are none. */
+    public List<String> getPatterns(int node) {
+        int r = restriction.get(node);
+        if (r == NONE) {
+            return new ArrayList<>();
+        }
+        int first = restrictionData.get(4 * r + 2);
+        int count = restrictionData.get(4 * r + 3);
+        List<String> patterns = new ArrayList<>(count);
+        for (int p = first, end = first + count; p < end; p++) {
+            patterns.add(string(patternData.get(p)));
+        }
+        return patterns;
+    }
+
+    private String restrictionString(int node, int field) {
+        int r = restriction.get(node);
+        return r == NONE ? null : string(restrictionData.get(4 * r + field));
+    }
+
+    /**
+     * Bytes held on the heap by the per-node columns, excluding the string
+     * table; 0 for the columns of a mapped schema.
+     */
+    public long getArrayBytes() {
+        long bytes = 2 * (16 + 4L * imports.length);
+        for (IntBuffer column : columns()) {
+            if (column.hasArray()) {
+                // 4 bytes per slot plus a 16-byte array header
+                bytes += 16 + 4L * column.limit();
+            }
+        }
+        return bytes;
+    }
+}
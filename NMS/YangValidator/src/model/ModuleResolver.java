@@ -0,0 +1,9 @@
+package model;
+
+/**
+ * Supplies imported modules on demand, e.g. from a module registry.
+ */
+public interface ModuleResolver {
+    /** The module with this name, or null if it cannot be found or parsed. */
+    YangModule resolve(String moduleName);
+}
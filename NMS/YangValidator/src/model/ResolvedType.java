@@ -0,0 +1,45 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A typedef flattened onto its built-in base type, with the restrictions
+ * of the whole derivation chain merged: the most derived range and length
+ * apply, and patterns accumulate because a value must match all of them.
+ */
+public class ResolvedType {
+    private final List<String> chain;
+    private final String baseType;
+    private final String range;
+    private final String length;
+    private final List<String> patterns;
+
+    ResolvedType(List<String> chain, String baseType, String range, String length, List<String> patterns) {
+        this.chain = Collections.unmodifiableList(chain);
+        this.baseType = baseType;
+        this.range = range;
+        this.length = length;
+        this.patterns = Collections.unmodifiableList(patterns);
+    }
+
+    /** The typedef name this was resolved from. */
+    public String getName() { return chain.get(0); }
+
+    /** Typedef names from the resolved one down to the last before the base type. */
+    public List<String> getChain() { return chain; }
+
+    /** Built-in type at the end of the chain (or the unresolvable name it ended at). */
+    public String getBaseType() { return baseType; }
+
+    public String getRange() { return range; }
+
+    public String getLength() { return length; }
+
+    public List<String> getPatterns() { return patterns; }
+
+    @Override
+    public String toString() {
+        return String.join(" -> ", chain) + " -> " + baseType;
+    }
+}
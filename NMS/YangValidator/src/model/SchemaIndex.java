@@ -0,0 +1,248 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hash index over a module's schema tree, built once so that resolving a
+ * node never walks sibling lists.
+ *
+ * Absolute paths look like "/system/services/service/name"; segments may
+ * carry a module prefix ("/ex:system/ex:services"), which is ignored.
+ * Besides whole-path lookups, child(parent, name) resolves one step at a
+ * time for callers that already hold a node.
+ *
+ * The index is a snapshot: nodes added to the tree after it was built are
+ * not seen, unless they were added through makeWritable(), addChildren()
+ * or remove(), which edit the tree and the index together. Those are how
+ * augments and deviations are applied: subtrees shared through groupings
+ * are copied along the edited path first, so other users of a grouping
+ * keep the original.
+ */
+public class SchemaIndex {
+    private final YangModule module;
+    private final Map<String, YangNode> byPath = new HashMap<>();
+    private final Map<YangNode, String> pathOf = new IdentityHashMap<>();
+    private final Map<YangNode, Map<String, YangNode>> children = new IdentityHashMap<>();
+    private final Map<String, YangNode> roots = new HashMap<>();
+    // How often each node occurs (per path, plus in grouping bodies); above one it is shared
+    private final Map<YangNode, Integer> occurrences = new IdentityHashMap<>();
+
+    public SchemaIndex(YangModule module) {
+        this.module = module;
+        for (YangNode node : module.getNodes()) {
+            roots.putIfAbsent(node.getName(), node);
+            add(node, "");
+        }
+        for (YangNode grouping : module.getGroupings().values()) {
+            countGrouping(grouping.getChildren());
+        }
+    }
+
+    private void countGrouping(List<YangNode> nodes) {
+        for (YangNode node : nodes) {
+            occurrences.merge(node, 1, Integer::sum);
+            countGrouping(node.getChildren());
+        }
+    }
+
+    private void add(YangNode node, String parentPath) {
+        String path = parentPath + "/" + node.getName();
+        byPath.putIfAbsent(path, node);
+        pathOf.put(node, path);
+        // A node from another module's grouping also occurs in that grouping
+        occurrences.merge(node, occurrences.containsKey(node) || node.getDefiningModule() == null ? 1 : 2,
+                Integer::sum);
+
+        if (!node.getChildren().isEmpty()) {
+            Map<String, YangNode> byName = new HashMap<>();
+            for (YangNode child : node.getChildren()) {
+                byName.putIfAbsent(child.getName(), child);
+                add(child, path);
+            }
+            children.put(node, byName);
+        }
+    }
+
+    /**
+     * Returns the node at an absolute schema path, or null.
+     */
+    public YangNode find(String path) {
+        YangNode node = byPath.get(path);
+        if (node == null && path.indexOf(':') >= 0) {
+            node = byPath.get(stripPrefixes(path));
+        }
+        return node;
+    }
+
+    /**
+     * Returns the child of parent named name, or a top-level node when
+     * parent is null.
+     */
+    public YangNode child(YangNode parent, String name) {
+        if (parent == null) {
+            return roots.get(name);
+        }
+        Map<String, YangNode> byName = children.get(parent);
+        return byName == null ? null : byName.get(name);
+    }
+
+    /** Children of node keyed by name (empty for leaves). */
+    public Map<String, YangNode> childMap(YangNode node) {
+        Map<String, YangNode> byName = node == null ? roots : children.get(node);
+        return byName == null ? Collections.emptyMap() : Collections.unmodifiableMap(byName);
+    }
+
+    /** Absolute path of an indexed node, or null if it is not in this index. */
+    public String pathOf(YangNode node) {
+        return pathOf.get(node);
+    }
+
+    /**
+     * Returns the node at path after replacing it and every ancestor that is
+     * shared (through a grouping, or another module's grouping) with a
+     * private copy, so the node can be edited without affecting other
+     * paths. Returns null if there is no such node.
+     */
+    public YangNode makeWritable(String path) {
+        String plain = path.indexOf(':') >= 0 ? stripPrefixes(path) : path;
+        if (!byPath.containsKey(plain)) {
+            return null;
+        }
+        List<YangNode> siblings = module.getNodes();
+        YangNode parent = null;
+        YangNode node = null;
+        StringBuilder current = new StringBuilder();
+        for (String segment : plain.substring(1).split("/")) {
+            current.append('/').append(segment);
+            node = byPath.get(current.toString());
+            if (isShared(node)) {
+                node = replaceWithCopy(node, current.toString(), parent, siblings);
+            }
+            siblings = node.getChildren();
+            parent = node;
+        }
+        return node;
+    }
+
+    private YangNode replaceWithCopy(YangNode node, String path, YangNode parent, List<YangNode> siblings) {
+        YangNode copy = node.shallowCopy();
+        for (int i = 0; i < siblings.size(); i++) {
+            if (siblings.get(i) == node) {
+                siblings.set(i, copy);
+                break;
+            }
+        }
+        byPath.put(path, copy);
+        pathOf.put(copy, path);
+        if (path.equals(pathOf.get(node))) {
+            pathOf.remove(node);
+        }
+        occurrences.merge(node, -1, Integer::sum);
+        occurrences.put(copy, 1);
+        Map<String, YangNode> byName = children.get(node);
+        if (byName != null) {
+            children.put(copy, new HashMap<>(byName));
+        }
+        Map<String, YangNode> parentMap = parent == null ? roots : children.get(parent);
+        if (parentMap != null) {
+            parentMap.replace(node.getName(), node, copy);
+        }
+        return copy;
+    }
+
+    /** Whether editing node in place would also change it somewhere else. */
+    public boolean isShared(YangNode node) {
+        return occurrences.getOrDefault(node, 0) > 1;
+    }
+
+    /**
+     * Appends nodes to parent's children and indexes them. parent must be
+     * writable (see makeWritable). The nodes stay referenced by whatever
+     * supplied them (an augment statement, possibly a grouping body shared
+     * with other trees), so they are indexed as shared and a later edit
+     * copies them first.
+     */
+    public void addChildren(YangNode parent, List<YangNode> nodes) {
+        String parentPath = pathOf.get(parent);
+        Map<String, YangNode> byName = children.computeIfAbsent(parent, p -> new HashMap<>());
+        for (YangNode node : nodes) {
+            parent.addChild(node);
+            byName.putIfAbsent(node.getName(), node);
+            add(node, parentPath);
+            markShared(node);
+        }
+    }
+
+    private void markShared(YangNode node) {
+        occurrences.merge(node, 1, Integer::sum);
+        for (YangNode child : node.getChildren()) {
+            markShared(child);
+        }
+    }
+
+    /**
+     * Removes the node at path from the tree and the index. Returns false if
+     * there is no such node.
+     */
+    public boolean remove(String path) {
+        String plain = path.indexOf(':') >= 0 ? stripPrefixes(path) : path;
+        YangNode node = byPath.get(plain);
+        if (node == null) {
+            return false;
+        }
+        int slash = plain.lastIndexOf('/');
+        List<YangNode> siblings;
+        Map<String, YangNode> siblingMap;
+        if (slash == 0) {
+            siblings = module.getNodes();
+            siblingMap = roots;
+        } else {
+            YangNode parent = makeWritable(plain.substring(0, slash));
+            siblings = parent.getChildren();
+            siblingMap = children.get(parent);
+        }
+        for (int i = 0; i < siblings.size(); i++) {
+            if (siblings.get(i) == node) {
+                siblings.remove(i);
+                break;
+            }
+        }
+        if (siblingMap != null) {
+            siblingMap.remove(node.getName(), node);
+        }
+        unindex(node, plain);
+        return true;
+    }
+
+    private void unindex(YangNode node, String path) {
+        byPath.remove(path, node);
+        pathOf.remove(node, path);
+        occurrences.merge(node, -1, Integer::sum);
+        for (YangNode child : node.getChildren()) {
+            unindex(child, path + "/" + child.getName());
+        }
+    }
+
+    public Set<String> paths() {
+        return Collections.unmodifiableSet(byPath.keySet());
+    }
+
+    public int size() {
+        return byPath.size();
+    }
+
+    static String stripPrefixes(String path) {
+        StringBuilder sb = new StringBuilder(path.length());
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) continue;
+            int colon = segment.indexOf(':');
+            sb.append('/').append(colon >= 0 ? segment.substring(colon + 1) : segment);
+        }
+        return sb.toString();
+    }
+}
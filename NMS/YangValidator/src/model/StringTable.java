@@ -0,0 +1,72 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Thread-safe string interning table shared by compact schemas.
+ * Each distinct string is stored once and referred to by an int id.
+ *
+ * Lookups use open addressing over an int[] of ids rather than a
+ * HashMap, so an entry costs a few array slots instead of a map node
+ * and a boxed Integer.
+ */
+public class StringTable {
+    public static final int NONE = -1;
+
+    private String[] strings = new String[64];
+    private int size;
+    // Slots hold id + 1; 0 marks an empty slot. Kept at most half full.
+    private int[] slots = new int[128];
+
+    public synchronized int intern(String s) {
+        if (s == null) {
+            return NONE;
+        }
+        int mask = slots.length - 1;
+        int i = mix(s.hashCode()) & mask;
+        while (slots[i] != 0) {
+            int id = slots[i] - 1;
+            if (strings[id].equals(s)) {
+                return id;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (size == strings.length) {
+            strings = Arrays.copyOf(strings, size * 2);
+        }
+        int id = size++;
+        strings[id] = s;
+        slots[i] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    public synchronized String get(int id) {
+        return id == NONE ? null : strings[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void rehash() {
+        int[] grown = new int[slots.length * 2];
+        int mask = grown.length - 1;
+        for (int id = 0; id < size; id++) {
+            int i = mix(strings[id].hashCode()) & mask;
+            while (grown[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            grown[i] = id + 1;
+        }
+        slots = grown;
+    }
+
+    private static int mix(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
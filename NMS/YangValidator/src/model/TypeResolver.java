@@ -0,0 +1,156 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves type names used in one module to ResolvedTypes. Each typedef
+ * chain is walked once; the result is cached by name, and a derived
+ * typedef reuses the cached result of the typedef it is based on.
+ *
+ * "prefix:name" is looked up in the imported module, through that
+ * module's own resolver and cache. A typedef nested in a statement is
+ * not on the module; nodes refer to it through getScopedTypedef(), and
+ * it is resolved and cached by identity.
+ *
+ * No lock is held while resolving, since that may load an imported module
+ * (ModuleRegistry) or resolve in another module's resolver; threads that
+ * race on the same name compute the same result and the first one cached
+ * is returned to both.
+ */
+public class TypeResolver {
+    private static final Set<String> BUILT_IN = new HashSet<>(Arrays.asList(
+            "binary", "bits", "boolean", "decimal64", "empty", "enumeration", "identityref",
+            "instance-identifier", "int8", "int16", "int32", "int64", "leafref", "string",
+            "uint8", "uint16", "uint32", "uint64", "union"));
+
+    // Cached in place of null, which ConcurrentHashMap cannot hold
+    private static final ResolvedType UNRESOLVED =
+            new ResolvedType(new ArrayList<>(), null, null, null, new ArrayList<>());
+
+    private final YangModule module;
+    private final Map<String, ResolvedType> resolved = new ConcurrentHashMap<>();
+    private final Map<YangNode, ResolvedType> resolvedScoped = new ConcurrentHashMap<>();
+
+    public TypeResolver(YangModule module) {
+        this.module = module;
+    }
+
+    public static boolean isBuiltIn(String typeName) {
+        return BUILT_IN.contains(typeName);
+    }
+
+    /**
+     * Returns the resolved typedef for typeName, or null for built-in
+     * types and for typedefs that do not end in a built-in type (unknown
+     * names, unavailable imports, circular chains).
+     */
+    public ResolvedType resolve(String typeName) {
+        return resolve(typeName, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Returns the resolved form of a nested typedef (a node's
+     * getScopedTypedef()), or null as for resolve(String).
+     */
+    public ResolvedType resolveScoped(YangNode typedef) {
+        return resolveScoped(typedef, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private ResolvedType resolveScoped(YangNode typedef, Set<YangNode> visiting) {
+        ResolvedType cached = resolvedScoped.get(typedef);
+        if (cached != null) {
+            return cached == UNRESOLVED ? null : cached;
+        }
+        if (!visiting.add(typedef)) {
+            return null;
+        }
+        ResolvedType result;
+        try {
+            result = flatten(typedef, base(typedef, visiting));
+        } finally {
+            visiting.remove(typedef);
+        }
+        ResolvedType previous = resolvedScoped.putIfAbsent(typedef, result == null ? UNRESOLVED : result);
+        if (previous != null) {
+            return previous == UNRESOLVED ? null : previous;
+        }
+        return result;
+    }
+
+    // visiting holds the typedefs on the chain being walked, in any module, to stop at cycles
+    private ResolvedType resolve(String typeName, Set<YangNode> visiting) {
+        if (typeName == null || BUILT_IN.contains(typeName)) {
+            return null;
+        }
+        ResolvedType cached = resolved.get(typeName);
+        if (cached != null) {
+            return cached == UNRESOLVED ? null : cached;
+        }
+
+        ResolvedType result = null;
+        int colon = typeName.indexOf(':');
+        if (colon >= 0) {
+            String prefix = typeName.substring(0, colon);
+            String name = typeName.substring(colon + 1);
+            YangModule owner = module.getModuleForPrefix(prefix);
+            if (owner == module) {
+                result = resolve(name, visiting);
+            } else if (owner != null) {
+                result = owner.getTypeResolver().resolve(name, visiting);
+            }
+        } else {
+            YangNode typedef = module.getTypedef(typeName);
+            if (typedef != null) {
+                if (!visiting.add(typedef)) {
+                    // Circular; left uncached for the call that started the cycle
+                    return null;
+                }
+                try {
+                    result = flatten(typedef, base(typedef, visiting));
+                } finally {
+                    visiting.remove(typedef);
+                }
+            }
+        }
+        ResolvedType previous = resolved.putIfAbsent(typeName, result == null ? UNRESOLVED : result);
+        if (previous != null) {
+            return previous == UNRESOLVED ? null : previous;
+        }
+        return result;
+    }
+
+    // The resolved type a typedef is derived from
+    private ResolvedType base(YangNode typedef, Set<YangNode> visiting) {
+        return typedef.getScopedTypedef() != null
+                ? resolveScoped(typedef.getScopedTypedef(), visiting)
+                : resolve(typedef.getDataType(), visiting);
+    }
+
+    private static ResolvedType flatten(YangNode typedef, ResolvedType base) {
+        List<String> chain = new ArrayList<>();
+        chain.add(typedef.getName());
+        if (base == null) {
+            if (!BUILT_IN.contains(typedef.getDataType())) {
+                // Unknown, unavailable or circular
+                return null;
+            }
+            return new ResolvedType(chain, typedef.getDataType(), typedef.getRange(), typedef.getLength(),
+                    new ArrayList<>(typedef.getPatterns()));
+        }
+        chain.addAll(base.getChain());
+        List<String> patterns = new ArrayList<>(base.getPatterns());
+        patterns.addAll(typedef.getPatterns());
+        return new ResolvedType(chain, base.getBaseType(),
+                typedef.getRange() != null ? typedef.getRange() : base.getRange(),
+                typedef.getLength() != null ? typedef.getLength() : base.getLength(),
+                patterns);
+    }
+}
@@ -1,19 +1,39 @@
 package model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
+public class YangModule implements Serializable {
+    private static final long serialVersionUID = 1L;
 
-public class YangModule {
     private String name;
     private String namespace;
     private String prefix;
     private List<YangNode> nodes;
     private List<String> imports;
+    private Map<String, String> importPrefixes;
+    private Map<String, YangNode> groupings;
+    private Map<String, YangNode> typedefs;
+    private List<YangNode> augments;
+    private List<YangNode> deviations;
+    private transient SchemaIndex schemaIndex;
+    private transient TypeResolver typeResolver;
+    private transient ModuleResolver resolver;
+    private transient boolean patchesApplied;
 
     public YangModule(String name) {
         this.name = name;
         this.nodes = new ArrayList<>();
         this.imports = new ArrayList<>();
+        this.importPrefixes = new LinkedHashMap<>();
+        this.groupings = new LinkedHashMap<>();
+        this.typedefs = new LinkedHashMap<>();
+        this.augments = new ArrayList<>();
+        this.deviations = new ArrayList<>();
     }
 
     // Getters and setters
@@ -27,11 +47,149 @@ public class YangModule {
     public void setPrefix(String prefix) { this.prefix = prefix; }
 
     public List<YangNode> getNodes() { return nodes; }
-    public void addNode(YangNode node) { this.nodes.add(node); }
+    public void addNode(YangNode node) {
+        this.nodes.add(node);
+        this.schemaIndex = null;
+    }
 
     public List<String> getImports() { return imports; }
     public void addImport(String importModule) { this.imports.add(importModule); }
 
+    /** Import prefix -> imported module name. */
+    public Map<String, String> getImportPrefixes() { return importPrefixes; }
+    public void addImportPrefix(String prefix, String importModule) { this.importPrefixes.put(prefix, importModule); }
+
+    /** Groupings by name; each is a "grouping" node whose children are its body. */
+    public Map<String, YangNode> getGroupings() { return groupings; }
+    public YangNode getGrouping(String name) { return groupings.get(name); }
+    public void addGrouping(YangNode grouping) { this.groupings.putIfAbsent(grouping.getName(), grouping); }
+
+    /** Typedefs by name; each is a "typedef" node carrying its type and restrictions. */
+    public Map<String, YangNode> getTypedefs() { return typedefs; }
+    public YangNode getTypedef(String name) { return typedefs.get(name); }
+    public synchronized void addTypedef(YangNode typedef) {
+        this.typedefs.putIfAbsent(typedef.getName(), typedef);
+        this.typeResolver = null;
+    }
+
+    /** Top-level augment statements: "augment" nodes named by target path, holding the nodes to add. */
+    public List<YangNode> getAugments() { return augments; }
+    public void addAugment(YangNode augment) { this.augments.add(augment); }
+
+    /** Deviation statements: "deviation" nodes named by target path, with "deviate" children. */
+    public List<YangNode> getDeviations() { return deviations; }
+    public void addDeviation(YangNode deviation) { this.deviations.add(deviation); }
+
+    /**
+     * A deep copy of this module's statements that can be edited without
+     * affecting this one. Nodes shared by several parents (expanded
+     * groupings) stay shared within the copy. The resolver, caches and
+     * patch state are not copied.
+     */
+    public YangModule copy() {
+        Map<YangNode, YangNode> copies = new IdentityHashMap<>();
+        YangModule copy = new YangModule(name);
+        copy.namespace = namespace;
+        copy.prefix = prefix;
+        copy.imports.addAll(imports);
+        copy.importPrefixes.putAll(importPrefixes);
+        copyAll(nodes, copy.nodes, copies);
+        copyAll(augments, copy.augments, copies);
+        copyAll(deviations, copy.deviations, copies);
+        for (Map.Entry<String, YangNode> entry : groupings.entrySet()) {
+            copy.groupings.put(entry.getKey(), copyNode(entry.getValue(), copies));
+        }
+        for (Map.Entry<String, YangNode> entry : typedefs.entrySet()) {
+            copy.typedefs.put(entry.getKey(), copyNode(entry.getValue(), copies));
+        }
+        return copy;
+    }
+
+    private static void copyAll(List<YangNode> from, List<YangNode> to, Map<YangNode, YangNode> copies) {
+        for (YangNode node : from) {
+            to.add(copyNode(node, copies));
+        }
+    }
+
+    private static YangNode copyNode(YangNode node, Map<YangNode, YangNode> copies) {
+        YangNode copy = copies.get(node);
+        if (copy == null) {
+            copy = node.shallowCopy();
+            copies.put(node, copy);
+            List<YangNode> children = copy.getChildren();
+            for (int i = 0; i < children.size(); i++) {
+                children.set(i, copyNode(children.get(i), copies));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Records that this module's augments and deviations have been applied
+     * to their targets. Returns false if that had already happened.
+     */
+    public synchronized boolean markPatchesApplied() {
+        if (patchesApplied) {
+            return false;
+        }
+        patchesApplied = true;
+        return true;
+    }
+
+    /** Typedef resolver for this module, created on first use and caching every chain it walks. */
+    public synchronized TypeResolver getTypeResolver() {
+        if (typeResolver == null) {
+            typeResolver = new TypeResolver(this);
+        }
+        return typeResolver;
+    }
+
+    /** The typedef typeName resolves to, or null for built-in and unknown types. */
+    public ResolvedType resolveType(String typeName) { return getTypeResolver().resolve(typeName); }
+
+    /**
+     * Sets where imported modules come from. Nothing is loaded until
+     * getImportedModule() or getModuleForPrefix() asks for a module.
+     */
+    public synchronized void setResolver(ModuleResolver resolver) {
+        this.resolver = resolver;
+        this.typeResolver = null;
+    }
+
+    /** The imported module with this name, loaded on first use; null if not imported or unavailable. */
+    public YangModule getImportedModule(String moduleName) {
+        if (resolver == null || !imports.contains(moduleName)) {
+            return null;
+        }
+        return resolver.resolve(moduleName);
+    }
+
+    /** This module for its own prefix, otherwise the module imported under prefix. */
+    public YangModule getModuleForPrefix(String prefix) {
+        if (prefix.equals(this.prefix)) {
+            return this;
+        }
+        String moduleName = importPrefixes.get(prefix);
+        return moduleName == null ? null : getImportedModule(moduleName);
+    }
+
+    /**
+     * Path index over this module, built on first use and reused until a
+     * top-level node is added. Call invalidateSchemaIndex() after editing
+     * nested nodes.
+     */
+    public synchronized SchemaIndex getSchemaIndex() {
+        if (schemaIndex == null) {
+            schemaIndex = new SchemaIndex(this);
+        }
+        return schemaIndex;
+    }
+
+    public synchronized void invalidateSchemaIndex() { this.schemaIndex = null; }
+
+    /** Looks up a node by absolute schema path, e.g. "/system/hostname". */
+    public YangNode findNode(String path) { return getSchemaIndex().find(path); }
+
     @Override
     public String toString() {
         return "YangModule{name='" + name + "', namespace='" + namespace + "', nodes=" + nodes.size() + "}";
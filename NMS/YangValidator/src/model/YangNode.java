@@ -1,15 +1,27 @@
 package model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
-public class YangNode {
+public class YangNode implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private String name;
     private String type;
     private String description;
     private List<YangNode> children;
     private boolean isMandatory;
     private String dataType;
+    private List<String> keys;
+    private String range;
+    private String length;
+    private List<String> patterns;
+    // Set on nodes linked in from another module's grouping
+    private transient YangModule definingModule;
+    private YangNode scopedTypedef;
 
     public YangNode(String name, String type) {
         this.name = name;
@@ -36,6 +48,70 @@ public class YangNode {
     public String getDataType() { return dataType; }
     public void setDataType(String dataType) { this.dataType = dataType; }
 
+    /** Key leaf names of a list, in declaration order; empty for other nodes. */
+    public List<String> getKeys() { return keys != null ? keys : Collections.emptyList(); }
+    public void setKeys(List<String> keys) { this.keys = keys; }
+
+    /** Sets the keys from a YANG key argument such as "name" or "name unit". */
+    public void setKeys(String keyArgument) {
+        this.keys = keyArgument == null || keyArgument.trim().isEmpty()
+                ? null
+                : Collections.unmodifiableList(Arrays.asList(keyArgument.trim().split("\\s+")));
+    }
+
+    /** Argument of the type's range restriction, e.g. "1..9000", or null. */
+    public String getRange() { return range; }
+    public void setRange(String range) { this.range = range; }
+
+    /** Argument of the type's length restriction, e.g. "1..255", or null. */
+    public String getLength() { return length; }
+    public void setLength(String length) { this.length = length; }
+
+    /** Pattern restrictions of the type; a value must match all of them. */
+    public List<String> getPatterns() { return patterns != null ? patterns : Collections.emptyList(); }
+    public void setPatterns(List<String> patterns) {
+        this.patterns = patterns == null || patterns.isEmpty() ? null : new ArrayList<>(patterns);
+    }
+    public void addPattern(String pattern) {
+        if (patterns == null) {
+            patterns = new ArrayList<>(1);
+        }
+        patterns.add(pattern);
+    }
+
+    /**
+     * Module whose typedefs and prefixes this node's type refers to, if it
+     * came from a grouping of another module; null for the module's own nodes.
+     */
+    public YangModule getDefiningModule() { return definingModule; }
+    public void setDefiningModule(YangModule definingModule) { this.definingModule = definingModule; }
+
+    /**
+     * The typedef this node's type names when that typedef is defined inside
+     * an enclosing statement rather than on the module; null otherwise.
+     */
+    public YangNode getScopedTypedef() { return scopedTypedef; }
+    public void setScopedTypedef(YangNode scopedTypedef) { this.scopedTypedef = scopedTypedef; }
+
+    /**
+     * Copy of this node whose children list is new but holds the same child
+     * nodes, so subtrees below it stay shared.
+     */
+    public YangNode shallowCopy() {
+        YangNode copy = new YangNode(name, type);
+        copy.description = description;
+        copy.children = new ArrayList<>(children);
+        copy.isMandatory = isMandatory;
+        copy.dataType = dataType;
+        copy.keys = keys;
+        copy.range = range;
+        copy.length = length;
+        copy.patterns = patterns == null ? null : new ArrayList<>(patterns);
+        copy.definingModule = definingModule;
+        copy.scopedTypedef = scopedTypedef;
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "YangNode{name='" + name + "', type='" + type + "', children=" + children.size() + "}";
@@ -0,0 +1,22 @@
+/**
+ * Runs every test in test/ and exits with 1 if any check failed.
+ *
+ * Usage (from NMS/YangValidator, after compiling src/ into out/):
+ *   javac -cp "out:lib/json-20231013.jar" -d out test/*.java
+ *   java -cp "out:lib/json-20231013.jar" AllTests
+ */
+public class AllTests {
+    public static void main(String[] args) throws Exception {
+        YangcFileTest.run();
+        CompactSchemaTest.run();
+        InstanceValidatorTest.run();
+        KeyUniquenessTest.run();
+        ModuleRegistryTest.run();
+        GroupingExpanderTest.run();
+        SchemaPatcherTest.run();
+        PipelineStageTest.run();
+        TelemetryValidatorTest.run();
+        JsonStreamReaderTest.run();
+        Check.finish();
+    }
+}
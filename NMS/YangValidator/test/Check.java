@@ -0,0 +1,67 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Assertions shared by the tests in test/.
+ *
+ * There is no test framework, so the tests also run straight from javac:
+ * each test is a class with a run() method and a main() that calls it;
+ * AllTests runs them all, and mvn test runs AllTests. A failed check is
+ * printed and counted rather than thrown, so one run reports every failure.
+ */
+final class Check {
+    private static int passed;
+    private static int failed;
+
+    private Check() {
+    }
+
+    static void that(boolean condition, String description) {
+        if (condition) {
+            passed++;
+        } else {
+            failed++;
+            System.out.println("  ✗ " + description);
+        }
+    }
+
+    static void equal(Object expected, Object actual, String description) {
+        that(Objects.equals(expected, actual), description + ": expected <" + expected + "> but was <" + actual + ">");
+    }
+
+    static void section(String name) {
+        System.out.println("== " + name);
+    }
+
+    /** Writes a UTF-8 file below dir and returns its path. */
+    static Path write(Path dir, String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /** A fresh directory, deleted with its contents when the JVM exits. */
+    static Path tempDir() throws IOException {
+        Path dir = Files.createTempDirectory("yang-test-");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            } catch (IOException e) {
+                // Left for the OS to clean up
+            }
+        }));
+        return dir;
+    }
+
+    /** Prints the totals and exits with 1 if any check failed. */
+    static void finish() {
+        System.out.println((failed == 0 ? "✓ " : "✗ ") + passed + " check(s) passed, " + failed + " failed");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,93 @@
+import model.CompactSchema;
+import model.StringTable;
+import model.YangModule;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * CompactSchema round trips: toModule() must give back a module that
+ * converts to the same JSON and validates the same instance data.
+ */
+public class CompactSchemaTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("CompactSchema");
+        Path dir = Check.tempDir();
+        JsonConverter converter = new JsonConverter();
+
+        YangModule example = new YangParser().parseYangFile("input/example.yang");
+        CompactSchema schema = CompactSchema.fromModule(example, new StringTable());
+        Path json = dir.resolve("example.json");
+        converter.saveJsonToFile(schema.toModule(), json.toString());
+        Check.that(Arrays.equals(Files.readAllBytes(Paths.get("output/example.json")), Files.readAllBytes(json)),
+                "example round trip converts byte-identically to output/example.json");
+        Check.equal("system", schema.getName(schema.getFirstRoot()), "first root");
+        Check.equal("container", schema.getKind(schema.getFirstRoot()), "first root kind");
+
+        Path source = Check.write(dir, "ports.yang", String.join("\n",
+                "module ports {",
+                "  namespace \"urn:ports\"; prefix p;",
+                "  typedef low-port { type uint16 { range \"1..1023\"; } }",
+                "  grouping named { leaf name { type string { pattern \"x\\ny\"; pattern \"[a-z]+\"; } } }",
+                "  container c { leaf port { type low-port; } }",
+                "  augment \"/p:c\" { leaf extra { type string; } }",
+                "  deviation \"/p:c/p:port\" { deviate add { mandatory true; } }",
+                "}"));
+        YangModule ports = new YangParser().parseYangFile(source.toString());
+        StringTable strings = new StringTable();
+        YangModule copy = CompactSchema.fromModule(ports, strings).toModule();
+
+        Check.equal(converter.convertToJsonString(ports), converter.convertToJsonString(copy), "ports JSON");
+        Check.equal(ports.getTypedefs().keySet(), copy.getTypedefs().keySet(), "typedefs");
+        Check.equal(ports.getGroupings().keySet(), copy.getGroupings().keySet(), "groupings");
+        Check.equal(1, copy.getAugments().size(), "augments");
+        Check.equal(1, copy.getDeviations().size(), "deviations");
+        Check.equal(Arrays.asList("x\ny", "[a-z]+"), copy.getGrouping("named").getChildren().get(0).getPatterns(),
+                "a pattern containing a newline stays one pattern");
+
+        String document = "{\"ports:c\":{\"port\":5000}}";
+        Check.equal(1, new InstanceValidator(ports).validate(document).size(), "parsed module rejects 5000 for low-port");
+        Check.equal(1, new InstanceValidator(copy).validate(document).size(), "round-tripped module rejects 5000 too");
+
+        // A grouping body linked under two parents is stored once and shared again by toModule()
+        Path shared = Check.write(dir, "shared.yang", String.join("\n",
+                "module shared {",
+                "  namespace \"urn:shared\"; prefix s;",
+                "  grouping addr { leaf ip { type string; } leaf port { type uint16; } }",
+                "  container one { uses addr; }",
+                "  container two { uses addr; }",
+                "}"));
+        YangModule sharing = new YangParser().parseYangFile(shared.toString());
+        CompactSchema sharedSchema = CompactSchema.fromModule(sharing, new StringTable());
+        Check.equal(5, sharedSchema.getNodeCount(), "one, two, the grouping and its two leaves");
+        int one = sharedSchema.getFirstRoot();
+        Check.equal(sharedSchema.getFirstChild(one), sharedSchema.getFirstChild(sharedSchema.getNextSibling(one)),
+                "both containers point at the same child chain");
+        YangModule sharedCopy = sharedSchema.toModule();
+        Check.that(sharedCopy.findNode("/one/ip") == sharedCopy.findNode("/two/ip"), "shared nodes are shared again");
+        Check.that(sharedCopy.findNode("/one/ip") == sharedCopy.getGrouping("addr").getChildren().get(0),
+                "and shared with the grouping body");
+
+        // writeTo() / map() round trip, without a file
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        schema.writeTo(new DataOutputStream(bytes));
+        CompactSchema read = CompactSchema.map(ByteBuffer.wrap(bytes.toByteArray()));
+        Check.equal(schema.getNodeCount(), read.getNodeCount(), "mapped node count");
+        Check.equal(converter.convertToJsonString(schema.toModule()), converter.convertToJsonString(read.toModule()),
+                "mapped schema JSON");
+
+        // A second module interned into the same table reuses its strings
+        int before = strings.size();
+        CompactSchema.fromModule(ports, strings);
+        Check.equal(before, strings.size(), "shared string table does not grow for the same module");
+    }
+}
@@ -0,0 +1,165 @@
+import model.YangModule;
+import model.YangNode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GroupingExpander: shared grouping bodies, path copies for refine and
+ * augment, memoized refinements, expansion problems, and groupings of
+ * imported modules.
+ */
+public class GroupingExpanderTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("GroupingExpander");
+
+        Path dir = Check.tempDir();
+        Path local = Check.write(dir, "g.yang", String.join("\n",
+                "module g {",
+                "  namespace \"urn:g\"; prefix g;",
+                "  typedef mtu-type { type uint16 { range \"68..9216\"; } }",
+                "  grouping settings {",
+                "    container config {",
+                "      leaf mtu { type mtu-type; }",
+                "      leaf name { type string; }",
+                "    }",
+                "  }",
+                "  grouping loop { container inner { uses loop; } }",
+                "  container one { uses settings; }",
+                "  container two { uses settings; }",
+                "  container three { uses settings { refine config/mtu { mandatory true; } } }",
+                "  container four { uses settings { refine config/mtu { mandatory true; } } }",
+                "  container five { uses settings { augment config { leaf extra { type string; } } } }",
+                "  container six { uses missing; }",
+                "  container seven { uses loop; }",
+                "}"));
+        ParseResult result = new YangParser().parse(local.toString());
+        YangModule g = result.getModule();
+
+        YangNode one = config(g, "one");
+        Check.that(one == config(g, "two"), "plain uses share the same nodes");
+        Check.that(one == g.getGrouping("settings").getChildren().get(0), "plain uses link the grouping body itself");
+        YangNode three = config(g, "three");
+        Check.that(three != one, "refine copies the path to its target");
+        Check.that(child(three, "mtu").isMandatory(), "refined leaf is mandatory");
+        Check.that(!child(one, "mtu").isMandatory(), "other uses are not refined");
+        Check.that(child(three, "name") == child(one, "name"), "nodes off the refined path stay shared");
+        Check.that(three == config(g, "four"), "identical refinements are built once");
+        YangNode five = config(g, "five");
+        Check.equal(List.of("mtu", "name", "extra"), names(five.getChildren()), "augment adds to a copy");
+        Check.equal(List.of("mtu", "name"), names(one.getChildren()), "grouping body is not augmented");
+        Check.equal(List.of(
+                "Grouping 'missing' not found",
+                "Grouping 'loop' is used inside itself"), warnings(result), "expansion problems");
+
+        // A grouping of an imported module, expanded once g is available
+        Path importing = Check.write(dir, "h.yang", String.join("\n",
+                "module h {",
+                "  namespace \"urn:h\"; prefix h;",
+                "  import g { prefix gp; }",
+                "  container a { uses gp:settings; }",
+                "  container b { uses gp:settings; }",
+                "  container c { uses gp:settings { refine config/name { description \"Refined\"; } } }",
+                "  container d { uses gp:absent; }",
+                "}"));
+        YangModule h = new YangParser().parseYangFile(importing.toString());
+        Check.equal("gp:settings", h.getNodes().get(0).getChildren().get(0).getName(),
+                "uses of an unloaded import stay in place");
+        h.setResolver(name -> "g".equals(name) ? g : null);
+        GroupingExpander expander = new GroupingExpander();
+        List<String> problems = new ArrayList<>();
+        expander.expand(h, (uses, message) -> problems.add(message));
+        YangNode a = config(h, "a");
+        Check.that(a == one, "an imported grouping is shared with its own module's uses");
+        Check.that(a == config(h, "b"), "uses of an imported grouping share nodes");
+        Check.that(child(a, "mtu").getDefiningModule() == g,
+                "imported grouping nodes belong to the defining module");
+        Check.equal("Refined", child(config(h, "c"), "name").getDescription(), "refine of an imported grouping");
+        Check.equal(List.of("Grouping 'gp:absent' not found"), problems, "missing imported grouping reported");
+        Check.equal(3, expander.getUsesExpanded(), "uses expanded");
+        Check.equal(1, expander.getReused(), "expansions reusing the grouping body");
+        Check.equal(2, expander.getNodesCopied(), "nodes copied for the refine path");
+
+        // Types inside an imported grouping resolve against the defining module
+        ModuleRegistry registry = new ModuleRegistry(new YangParser(), List.of(dir));
+        registry.load(List.of("h"));
+        YangModule loaded = registry.get("h");
+        YangNode mtu = child(config(loaded, "a"), "mtu");
+        Check.that(mtu.getDefiningModule() == registry.get("g"), "defining module set through the registry");
+        Check.equal(List.of("h: Grouping 'gp:absent' not found"), registry.getProblems(), "registry problems");
+
+        // Nested groupings are scoped to the statement that defines them
+        Path nested = Check.write(dir, "n.yang", String.join("\n",
+                "module n {",
+                "  namespace \"urn:n\"; prefix n;",
+                "  grouping common { leaf top { type string; } }",
+                "  container a {",
+                "    grouping common { leaf in-a { type string; } }",
+                "    container config { uses common; }",
+                "  }",
+                "  container b {",
+                "    grouping common { leaf in-b { type string; } }",
+                "    container config { uses common; }",
+                "  }",
+                "  container c { container config { uses common; } }",
+                "  grouping outer {",
+                "    grouping inner { leaf from-inner { type string; } }",
+                "    container config { uses inner; }",
+                "  }",
+                "  container d { uses outer; }",
+                "  container e { uses inner; }",
+                "}"));
+        ParseResult nestedResult = new YangParser().parse(nested.toString());
+        YangModule n = nestedResult.getModule();
+        Check.equal(List.of("in-a"), names(config(n, "a").getChildren()), "uses picks the grouping of its own container");
+        Check.equal(List.of("in-b"), names(config(n, "b").getChildren()), "same-named nested grouping stays separate");
+        Check.equal(List.of("top"), names(config(n, "c").getChildren()), "uses outside falls back to the module grouping");
+        Check.equal(List.of("from-inner"), names(config(n, "d").getChildren()), "grouping nested in a grouping");
+        Check.equal(List.of("common", "outer"), new ArrayList<>(n.getGroupings().keySet()),
+                "nested groupings are not module groupings");
+        Check.that(n.getGrouping("outer").getChildren().get(0).getChildren().get(0).getName().equals("from-inner"),
+                "module grouping bodies are expanded with the nested groupings in scope");
+        Check.equal(List.of("Grouping 'inner' not found"), warnings(nestedResult),
+                "nested grouping is not visible outside its statement");
+    }
+
+    // The config container a top-level container got from its uses
+    private static YangNode config(YangModule module, String container) {
+        for (YangNode node : module.getNodes()) {
+            if (container.equals(node.getName())) {
+                return child(node, "config");
+            }
+        }
+        return null;
+    }
+
+    private static YangNode child(YangNode parent, String name) {
+        for (YangNode child : parent.getChildren()) {
+            if (name.equals(child.getName())) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    private static List<String> names(List<YangNode> nodes) {
+        List<String> names = new ArrayList<>();
+        for (YangNode node : nodes) {
+            names.add(node.getName());
+        }
+        return names;
+    }
+
+    private static List<String> warnings(ParseResult result) {
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic warning : result.getWarnings()) {
+            messages.add(warning.getMessage());
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,103 @@
+import model.CompactSchema;
+import model.StringTable;
+import model.YangModule;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Instance data (RFC 7951 JSON) checked against example.yang, by the tree
+ * validator and the streaming validator, which must report the same errors.
+ */
+public class InstanceValidatorTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("InstanceValidator");
+        YangModule example = new YangParser().parseYangFile("input/example.yang");
+        InstanceValidator validator = new InstanceValidator(example);
+        StreamingInstanceValidator streaming = new StreamingInstanceValidator(validator);
+
+        String valid = "{\"example:system\":{\"hostname\":\"r1\",\"dns-servers\":[\"10.0.0.1\"],"
+                + "\"services\":{\"service\":[{\"name\":\"ssh\",\"enabled\":true}]}},"
+                + "\"example:interfaces\":{\"interface\":[{\"name\":\"eth0\",\"mtu\":1500}]}}";
+        Check.equal(0, validator.validate(valid).size(), "valid document");
+        Check.equal(0, streamed(streaming, valid).size(), "valid document (streaming)");
+
+        expect(validator, streaming, "{\"example:system\":{}}",
+                "/example:system: Missing mandatory leaf 'hostname'");
+        expect(validator, streaming, "{\"example:interfaces\":{\"interface\":[{\"name\":\"eth0\",\"mtu\":70000}]}}",
+                "/example:interfaces/interface[0]/mtu: Value 70000 is not a valid uint16");
+        expect(validator, streaming, "{\"example:system\":{\"hostname\":\"r1\",\"color\":\"red\"}}",
+                "/example:system/color: Unknown element 'color'");
+        expect(validator, streaming, "{\"example:interfaces\":{\"interface\":{\"name\":\"eth0\"}}}",
+                "/example:interfaces/interface: Expected an array for list 'interface'");
+        expect(validator, streaming, "{\"example:system\":{\"hostname\":true}}",
+                "/example:system/hostname: Value true is not a valid string");
+
+        // Members may be qualified with the module name at any level
+        Check.equal(0, validator.validate("{\"example:system\":{\"example:hostname\":\"r1\"}}").size(),
+                "qualified member name");
+
+        // Same-named typedefs nested in two containers keep their own restrictions
+        Path source = Check.write(Check.tempDir(), "scoped.yang", String.join("\n",
+                "module scoped {",
+                "  namespace \"urn:scoped\"; prefix s;",
+                "  typedef level { type uint8 { range \"0..3\"; } }",
+                "  container a {",
+                "    typedef level { type uint8 { range \"1..5\"; } }",
+                "    leaf value { type level; }",
+                "  }",
+                "  container b {",
+                "    typedef level { type uint8 { range \"10..20\"; } }",
+                "    typedef high { type level { range \"15..20\"; } }",
+                "    leaf value { type level; }",
+                "    leaf peak { type high; }",
+                "  }",
+                "  container c { leaf value { type level; } }",
+                "}"));
+        YangModule scoped = new YangParser().parseYangFile(source.toString());
+        Check.equal(List.of("level"), new ArrayList<>(scoped.getTypedefs().keySet()),
+                "nested typedefs are not module typedefs");
+        String document = "{\"scoped:a\":{\"value\":4},\"scoped:b\":{\"value\":4,\"peak\":12},"
+                + "\"scoped:c\":{\"value\":4}}";
+        List<String> errors = List.of(
+                "/scoped:c/value: Value 4 is not a valid level (uint8 {range 0..3;})",
+                "/scoped:b/peak: Value 12 is not a valid high (uint8 {range 15..20;})",
+                "/scoped:b/value: Value 4 is not a valid level (uint8 {range 10..20;})");
+        Check.equal(errors, messages(new InstanceValidator(scoped).validate(document)), "nested typedefs");
+        Path compiled = source.resolveSibling("scoped.yangc");
+        YangcFile.write(scoped, compiled);
+        Check.equal(errors, messages(new InstanceValidator(YangcFile.load(compiled)).validate(document)),
+                "nested typedefs after a .yangc round trip");
+        YangModule compact = CompactSchema.fromModule(scoped, new StringTable()).toModule();
+        Check.equal(errors, messages(new InstanceValidator(compact).validate(document)),
+                "nested typedefs after a CompactSchema round trip");
+    }
+
+    private static void expect(InstanceValidator validator, StreamingInstanceValidator streaming,
+                               String document, String error) throws Exception {
+        Check.equal(List.of(error), messages(validator.validate(document)), document);
+        Check.equal(List.of(error), messages(streamed(streaming, document)), document + " (streaming)");
+    }
+
+    private static List<InstanceError> streamed(StreamingInstanceValidator streaming, String document) throws Exception {
+        List<InstanceError> errors = new ArrayList<>();
+        streaming.validate(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), errors::add);
+        return errors;
+    }
+
+    // Without the streaming validator's byte offsets
+    private static List<String> messages(List<InstanceError> errors) {
+        List<String> messages = new ArrayList<>();
+        for (InstanceError error : errors) {
+            messages.add(error.getPath() + ": " + error.getMessage());
+        }
+        return messages;
+    }
+}
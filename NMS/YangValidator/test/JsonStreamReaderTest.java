@@ -0,0 +1,54 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JsonStreamReader: skipping values without decoding them, and reusing
+ * member name Strings.
+ */
+public class JsonStreamReaderTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("JsonStreamReader");
+
+        JsonStreamReader reader = reader("{\"skip\": {\"a\\\"]}\": [1.5e3, \"\\u0041\\\\\", null, {\"x\": true}]},"
+                + " \"n\": \"v\", \"skip\": \"\\\"}\", \"n\": 7}");
+        Check.equal(JsonStreamReader.BEGIN_OBJECT, reader.next(), "document starts with an object");
+        Check.equal(JsonStreamReader.NAME, reader.next(), "first member");
+        String skip = reader.name();
+        Check.equal(JsonStreamReader.BEGIN_OBJECT, reader.skipNextValue(), "skipped value was an object");
+        Check.equal(JsonStreamReader.NAME, reader.next(), "next member after the skipped object");
+        String n = reader.name();
+        Check.equal("n", n, "member name");
+        Check.equal(JsonStreamReader.STRING, reader.next(), "string value");
+        Check.equal("v", reader.value(), "decoded string value");
+        reader.next();
+        Check.that(reader.name() == skip, "a repeated member name is the same String");
+        Check.equal(JsonStreamReader.STRING, reader.skipNextValue(), "skipped value was a string");
+        reader.next();
+        Check.that(reader.name() == n, "the other repeated name too");
+        Check.equal(JsonStreamReader.NUMBER, reader.next(), "number after the skipped string");
+        Check.equal(7, reader.value(), "decoding resumes after a skip");
+        Check.equal(JsonStreamReader.END_OBJECT, reader.next(), "end of the object");
+        Check.equal(JsonStreamReader.EOF, reader.next(), "end of the document");
+
+        JsonStreamReader broken = reader("{\"skip\": [\"open]}");
+        broken.next();
+        broken.next();
+        String message = null;
+        try {
+            broken.skipNextValue();
+        } catch (JsonStreamReader.SyntaxException e) {
+            message = e.getMessage();
+        }
+        Check.equal("Unterminated string at byte 16", message, "a skipped value is still checked for structure");
+    }
+
+    private static JsonStreamReader reader(String json) throws IOException {
+        return new JsonStreamReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 8);
+    }
+}
@@ -0,0 +1,90 @@
+import model.YangModule;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * List key uniqueness: KeyFingerprint's equality rules, and duplicate
+ * reports from the tree and streaming validators, including lists large
+ * enough to be checked in parallel chunks.
+ */
+public class KeyUniquenessTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("Key uniqueness");
+
+        Check.that(KeyFingerprint.of("1") != KeyFingerprint.of(1), "\"1\" and 1 are different keys");
+        Check.equal(KeyFingerprint.of(1), KeyFingerprint.of(new BigDecimal("1.0")), "1 and 1.0 are the same key");
+        Check.equal(KeyFingerprint.of(7), KeyFingerprint.of(7L), "Integer and Long of the same value");
+        long ab = KeyFingerprint.add(KeyFingerprint.add(0, 0, "a"), 1, "b");
+        long ba = KeyFingerprint.add(KeyFingerprint.add(0, 1, "b"), 0, "a");
+        Check.equal(ab, ba, "a composite key does not depend on the order its leaves appear in");
+        long swapped = KeyFingerprint.add(KeyFingerprint.add(0, 0, "b"), 1, "a");
+        Check.that(ab != swapped, "swapping values between key positions changes the key");
+
+        Path dir = Check.tempDir();
+        Path source = Check.write(dir, "routes.yang", String.join("\n",
+                "module routes {",
+                "  namespace \"urn:routes\"; prefix r;",
+                "  container table {",
+                "    list route {",
+                "      key \"prefix vrf\";",
+                "      leaf prefix { type string; }",
+                "      leaf vrf { type uint32; }",
+                "    }",
+                "  }",
+                "}"));
+        YangModule routes = new YangParser().parseYangFile(source.toString());
+        InstanceValidator validator = new InstanceValidator(routes);
+        StreamingInstanceValidator streaming = new StreamingInstanceValidator(validator);
+
+        String small = document(new String[] {
+            "{\"prefix\":\"10.0.0.0/8\",\"vrf\":1}",
+            "{\"vrf\":1,\"prefix\":\"10.0.0.0/16\"}",
+            "{\"vrf\":1,\"prefix\":\"10.0.0.0/8\"}",
+            "{\"prefix\":\"10.0.0.0/8\",\"vrf\":2}"});
+        List<String> expected = List.of("/routes:table/route[2]: Duplicate key in list 'route' (same as entry 0)");
+        Check.equal(expected, messages(validator.validate(small)), "duplicate composite key");
+        Check.equal(expected, messages(streamed(streaming, small)), "duplicate composite key (streaming)");
+
+        // Spans several parallel chunks; reports must come out as a sequential pass would
+        int count = InstanceValidator.PARALLEL_THRESHOLD * 2;
+        String[] entries = new String[count];
+        for (int i = 0; i < count; i++) {
+            entries[i] = "{\"prefix\":\"p" + i + "\",\"vrf\":" + (i % 3) + "}";
+        }
+        entries[count - 1] = entries[3];
+        entries[InstanceValidator.CHUNK_SIZE + 1] = entries[3];
+        String large = document(entries);
+        expected = List.of(
+                "/routes:table/route[" + (InstanceValidator.CHUNK_SIZE + 1) + "]: Duplicate key in list 'route' (same as entry 3)",
+                "/routes:table/route[" + (count - 1) + "]: Duplicate key in list 'route' (same as entry 3)");
+        Check.equal(expected, messages(validator.validate(large)), "duplicates across parallel chunks");
+        Check.equal(expected, messages(streamed(streaming, large)), "duplicates across parallel chunks (streaming)");
+    }
+
+    private static String document(String[] entries) {
+        return "{\"routes:table\":{\"route\":[" + String.join(",", entries) + "]}}";
+    }
+
+    private static List<InstanceError> streamed(StreamingInstanceValidator streaming, String document) throws Exception {
+        List<InstanceError> errors = new ArrayList<>();
+        streaming.validate(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), errors::add);
+        return errors;
+    }
+
+    private static List<String> messages(List<InstanceError> errors) {
+        List<String> messages = new ArrayList<>();
+        for (InstanceError error : errors) {
+            messages.add(error.getPath() + ": " + error.getMessage());
+        }
+        return messages;
+    }
+}
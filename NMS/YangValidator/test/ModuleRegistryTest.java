@@ -0,0 +1,130 @@
+import model.YangModule;
+import model.YangNode;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * ModuleRegistry: locating modules by revision, loading import closures in
+ * waves, missing modules and import cycles, and lazy loading with LRU
+ * eviction of imported modules.
+ */
+public class ModuleRegistryTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("Module registry");
+
+        Path dir = Check.tempDir();
+        Path first = dir.resolve("first");
+        Path second = dir.resolve("second");
+        Check.write(first, "a.yang", module("a", "x", "b", "c"));
+        Check.write(first, "c.yang", module("c", "x", "d"));
+        Check.write(first, "sub/b@2019-01-01.yang", module("b", "old"));
+        Check.write(first, "sub/b@2020-01-01.yang", module("b", "new"));
+        Check.write(first, "e.yang", module("e", "x", "f"));
+        Check.write(first, "f.yang", module("f", "x", "e"));
+        Check.write(second, "b.yang", module("b", "other"));
+        List<Path> searchPaths = Arrays.asList(first, second);
+
+        ModuleRegistry registry = new ModuleRegistry(new YangParser(), searchPaths);
+        Check.equal("b@2020-01-01.yang", registry.locate("b").getFileName().toString(),
+                "the latest revision in the first search path that has the module");
+        Check.equal(null, registry.locate("d"), "an unknown module is not located");
+
+        List<YangModule> modules = registry.load(List.of("a"));
+        Check.equal(1, modules.size(), "load returns the requested module");
+        Check.equal(3, registry.getLoadedCount(), "a and its imports b and c are loaded");
+        Check.equal(2, registry.getParseWaves(), "a is parsed first, then b and c together");
+        Check.equal(List.of("new"), leafNames(registry.get("b")), "b comes from its latest revision");
+        Check.equal(List.of("b", "c"), registry.getDependencies("a"), "dependencies of a");
+        Check.equal(List.of(), registry.getDependencies("c"), "a missing import is not a dependency");
+        Check.equal(List.of(List.of("b", "c"), List.of("a")), registry.getWaves(), "waves in topological order");
+        Check.equal(List.of("Module 'd' imported by 'c' not found in search path"), registry.getProblems(),
+                "missing import reported with its importer");
+
+        ModuleRegistry cyclic = new ModuleRegistry(new YangParser(), searchPaths);
+        cyclic.load(List.of("e"));
+        Check.equal(List.of(List.of("e", "f")), cyclic.getWaves(), "modules on a cycle form the last wave");
+        Check.equal(List.of("Import cycle between: e, f"), cyclic.getProblems(), "import cycle reported once");
+
+        // One resident import: each switch between b and c evicts the other
+        ModuleRegistry lazy = new ModuleRegistry(new YangParser(), searchPaths, ForkJoinPool.commonPool(), 1);
+        YangModule a = new YangParser().parseYangFile(first.resolve("a.yang").toString());
+        lazy.register(a);
+        Check.equal(1, lazy.getLoadedCount(), "register does not load imports");
+        Check.that(lazy.resolve("b") != null, "b resolved on demand");
+        Check.that(lazy.resolve("c") != null, "c resolved on demand");
+        Check.that(lazy.resolve("b") != null, "b resolved again after eviction");
+        Check.equal(3, lazy.getLazyLoadCount(), "b is parsed again after eviction");
+        Check.equal(2, lazy.getEvictionCount(), "evictions with one resident import");
+        Check.equal(2, lazy.getTouchedCount(), "distinct modules dereferenced");
+        Check.that(lazy.get("a") == a, "a registered module is never evicted");
+        Check.equal(null, lazy.resolve("d"), "a missing module resolves to null");
+        Check.equal(List.of("Module 'd' not found in search path"), lazy.getProblems(), "missing module reported");
+
+        // A module whose grouping is linked into an importer stays resident; one only used for types goes
+        Path linked = dir.resolve("linked");
+        Check.write(linked, "groups.yang", String.join("\n",
+                "module groups {",
+                "  namespace \"urn:groups\"; prefix g;",
+                "  grouping addr { leaf ip { type string; } }",
+                "}"));
+        Check.write(linked, "types.yang", String.join("\n",
+                "module types {",
+                "  namespace \"urn:types\"; prefix t;",
+                "  typedef label { type string { length \"1..8\"; } }",
+                "}"));
+        Check.write(linked, "other.yang", module("other", "x"));
+        Path user = Check.write(linked, "user.yang", String.join("\n",
+                "module user {",
+                "  namespace \"urn:user\"; prefix u;",
+                "  import groups { prefix g; }",
+                "  import types { prefix t; }",
+                "  container c { uses g:addr; }",
+                "  leaf name { type t:label; }",
+                "}"));
+        ModuleRegistry pinning = new ModuleRegistry(new YangParser(), List.of(linked), ForkJoinPool.commonPool(), 1);
+        YangModule userModule = new YangParser().parseYangFile(user.toString());
+        pinning.register(userModule);
+        YangModule groups = userModule.findNode("/c/ip").getDefiningModule();
+        Check.that(groups != null && groups == pinning.get("groups"), "grouping module loaded for the uses");
+        Check.equal("label", userModule.resolveType("t:label").getName(), "types module resolved");
+        WeakReference<YangModule> types = new WeakReference<>(pinning.get("types"));
+        Check.that(pinning.resolve("other") != null, "another import resolved");
+        Check.equal(1, pinning.getEvictionCount(), "one import evicted");
+        Check.that(pinning.resolve("groups") == groups, "the grouping module is not evicted or parsed twice");
+        Check.equal(null, pinning.get("types"), "the types module is evicted");
+        for (int i = 0; i < 20 && types.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Check.that(types.get() == null, "the evicted module is unreachable");
+    }
+
+    private static String module(String name, String leaf, String... imports) {
+        List<String> lines = new ArrayList<>();
+        lines.add("module " + name + " {");
+        lines.add("  namespace \"urn:" + name + "\"; prefix " + name + ";");
+        for (String imported : imports) {
+            lines.add("  import " + imported + " { prefix " + imported + "; }");
+        }
+        lines.add("  leaf " + leaf + " { type string; }");
+        lines.add("}");
+        return String.join("\n", lines);
+    }
+
+    private static List<String> leafNames(YangModule module) {
+        List<String> names = new ArrayList<>();
+        for (YangNode node : module.getNodes()) {
+            names.add(node.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,117 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PipelineStage: results in arrival order, and a failing item ending the
+ * stream with onError while other items are still being processed.
+ */
+public class PipelineStageTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("PipelineStage");
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ExecutorService delivery = Executors.newCachedThreadPool();
+        // Exceptions thrown on a worker would otherwise vanish with the task
+        List<Throwable> lost = Collections.synchronizedList(new ArrayList<>());
+        Executor workers = task -> pool.execute(() -> {
+            try {
+                task.run();
+            } catch (Throwable t) {
+                lost.add(t);
+            }
+        });
+        try {
+            Collector ordered = run(new PipelineStage<Integer, Integer>(i -> {
+                sleep((20 - i) % 5);
+                return i * 2;
+            }, 4, 8, workers, delivery), 20);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                expected.add(i * 2);
+            }
+            Check.equal(expected, ordered.items, "results keep the order of the items");
+            Check.that(ordered.completed && ordered.error == null, "stream completes");
+
+            // Item 2 fails at once; items 0, 1 and 3..7 are still running and finish afterwards
+            Collector failed = run(new PipelineStage<Integer, Integer>(i -> {
+                if (i == 2) {
+                    throw new IllegalArgumentException("bad item");
+                }
+                sleep(50);
+                return i;
+            }, 4, 8, workers, delivery), 8);
+            pool.shutdown();
+            Check.that(pool.awaitTermination(10, TimeUnit.SECONDS), "in-flight items finish");
+            Check.equal("bad item", failed.error == null ? null : failed.error.getMessage(), "failure reaches onError");
+            Check.equal(List.of(), failed.items, "results after the failure are dropped");
+            Check.that(!failed.completed, "a failed stream does not complete");
+            Check.equal(List.of(), lost, "no exception lost on a worker thread");
+        } finally {
+            pool.shutdownNow();
+            delivery.shutdownNow();
+        }
+    }
+
+    private static Collector run(PipelineStage<Integer, Integer> stage, int count) throws InterruptedException {
+        Collector collector = new Collector();
+        stage.subscribe(collector);
+        try (SubmissionPublisher<Integer> source = new SubmissionPublisher<>()) {
+            source.subscribe(stage);
+            for (int i = 0; i < count; i++) {
+                source.submit(i);
+            }
+        }
+        Check.that(collector.done.await(10, TimeUnit.SECONDS), "stream terminates");
+        return collector;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Collector implements Flow.Subscriber<Integer> {
+        final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+    }
+}
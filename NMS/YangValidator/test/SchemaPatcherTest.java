@@ -0,0 +1,139 @@
+import model.YangModule;
+import model.YangNode;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * SchemaPatcher and the registry's patching: augments and deviations across
+ * modules without leaking into shared grouping nodes, deviate ordering,
+ * target problems, lazy registration and cached parse results.
+ */
+public class SchemaPatcherTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("SchemaPatcher");
+
+        Path dir = Check.tempDir();
+        Check.write(dir, "base.yang", String.join("\n",
+                "module base {",
+                "  namespace \"urn:base\"; prefix b;",
+                "  container interfaces { }",
+                "}"));
+        Check.write(dir, "aug.yang", String.join("\n",
+                "module aug {",
+                "  namespace \"urn:aug\"; prefix a;",
+                "  import base { prefix b; }",
+                "  grouping settings { leaf mtu { type uint16; } }",
+                "  container local { uses settings; }",
+                "  augment \"/b:interfaces\" { uses settings; }",
+                "}"));
+        Check.write(dir, "dev.yang", String.join("\n",
+                "module dev {",
+                "  namespace \"urn:dev\"; prefix d;",
+                "  import base { prefix b; }",
+                "  import aug { prefix a; }",
+                "  deviation \"/b:interfaces/a:mtu\" { deviate add { mandatory true; } }",
+                "}"));
+
+        // The deviation edits the augmented copy, not aug's grouping or its other uses
+        ModuleRegistry registry = new ModuleRegistry(new YangParser(), List.of(dir));
+        registry.load(List.of("dev"));
+        YangModule base = registry.get("base");
+        YangModule aug = registry.get("aug");
+        YangNode mtu = child(top(base, "interfaces"), "mtu");
+        Check.that(mtu != null && mtu.isMandatory(), "augmented leaf made mandatory by the deviation");
+        Check.that(mtu != null && mtu.getDefiningModule() == aug, "augmented leaf belongs to the augmenting module");
+        Check.that(!child(top(aug, "local"), "mtu").isMandatory(), "other uses of the grouping unchanged");
+        Check.that(!child(aug.getGrouping("settings"), "mtu").isMandatory(), "grouping body unchanged");
+        Check.equal(List.of(), registry.getProblems(), "no registry problems");
+        Check.that(registry.getPatchStats().startsWith("Applied 1 augment(s) and 1 deviation(s)"), "patch stats");
+        registry.load(List.of("dev"));
+        Check.equal(1, top(base, "interfaces").getChildren().size(), "loading again does not patch again");
+
+        Path local = Check.write(dir, "local/sys.yang", String.join("\n",
+                "module sys {",
+                "  namespace \"urn:sys\"; prefix s;",
+                "  container system {",
+                "    leaf old { type string; }",
+                "    leaf port { type string; }",
+                "  }",
+                "  deviation \"/s:system/s:old\" { deviate not-supported; deviate add { mandatory true; } }",
+                "  deviation \"/s:system/s:port\" { deviate replace { type uint16 { range \"1..1024\"; } } }",
+                "  deviation \"/s:system/s:absent\" { deviate add { mandatory true; } }",
+                "  augment \"/x:system\" { leaf extra { type string; } }",
+                "  augment \"system\" { leaf extra { type string; } }",
+                "}"));
+        YangModule sys = new YangParser().parseYangFile(local.toString());
+        List<String> problems = new ArrayList<>();
+        SchemaPatcher patcher = new SchemaPatcher((statement, message) -> problems.add(message));
+        patcher.apply(sys);
+        YangNode system = top(sys, "system");
+        Check.equal(null, child(system, "old"), "not-supported removes the target");
+        YangNode port = child(system, "port");
+        Check.equal("uint16", port.getDataType(), "replace sets the type");
+        Check.equal("1..1024", port.getRange(), "replace sets the range");
+        Check.equal(List.of(
+                "Target '/x:system': unknown or unavailable module prefix 'x'",
+                "Target 'system' is not an absolute schema path",
+                "Deviation target '/s:system/s:old' not found",
+                "Deviation target '/s:system/s:absent' not found"), problems, "augments are applied before deviations");
+        Check.equal(0, patcher.getAugmentsApplied(), "augments applied");
+        Check.equal(2, patcher.getDeviationsApplied(), "deviations applied");
+        Check.that(patcher.getPatchedModules().contains(sys), "edited module recorded");
+
+        // Lazily loaded targets are pinned once patched, however many imports pass through
+        for (int i = 0; i < 3; i++) {
+            Check.write(dir, "x" + i + ".yang", String.join("\n",
+                    "module x" + i + " {",
+                    "  namespace \"urn:x" + i + "\"; prefix x" + i + ";",
+                    "  leaf v { type string; }",
+                    "}"));
+        }
+        ModuleRegistry lazy = new ModuleRegistry(new YangParser(), List.of(dir), ForkJoinPool.commonPool(), 1);
+        lazy.register(new YangParser().parseYangFile(dir.resolve("aug.yang").toString()));
+        YangModule patchedBase = lazy.get("base");
+        for (int i = 0; i < 3; i++) {
+            lazy.resolve("x" + i);
+        }
+        Check.that(lazy.getEvictionCount() > 0, "imports are evicted past the limit");
+        Check.that(lazy.get("base") == patchedBase, "a patched import is not evicted");
+        Check.that(child(top(patchedBase, "interfaces"), "mtu") != null, "patched import keeps the augment");
+
+        // Cached parse results are copies, so each registry patches its own tree
+        CachingYangParser caching = new CachingYangParser(16, null);
+        ModuleRegistry first = new ModuleRegistry(caching, List.of(dir));
+        first.load(List.of("dev"));
+        ModuleRegistry second = new ModuleRegistry(caching, List.of(dir));
+        second.load(List.of("dev"));
+        Check.that(caching.getMemoryHits() > 0, "second registry served from the cache");
+        Check.that(first.get("base") != second.get("base"), "each registry gets its own module");
+        Check.equal(1, top(first.get("base"), "interfaces").getChildren().size(), "first registry patched once");
+        Check.equal(1, top(second.get("base"), "interfaces").getChildren().size(), "second registry patched once");
+        Check.that(child(top(second.get("base"), "interfaces"), "mtu").isMandatory(),
+                "deviation applied in the second registry");
+    }
+
+    private static YangNode top(YangModule module, String name) {
+        for (YangNode node : module.getNodes()) {
+            if (name.equals(node.getName())) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private static YangNode child(YangNode parent, String name) {
+        for (YangNode child : parent.getChildren()) {
+            if (name.equals(child.getName())) {
+                return child;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,65 @@
+import model.YangModule;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TelemetryValidator: schema paths with predicates, key predicates checked
+ * against the list and the entry value, and byte counting.
+ */
+public class TelemetryValidatorTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("TelemetryValidator");
+
+        Path dir = Check.tempDir();
+        Path source = Check.write(dir, "tm.yang", String.join("\n",
+                "module tm {",
+                "  namespace \"urn:tm\"; prefix tm;",
+                "  container interfaces {",
+                "    list interface {",
+                "      key \"name\";",
+                "      leaf name { type string; }",
+                "      leaf mtu { type uint16; }",
+                "    }",
+                "    leaf description { type string; }",
+                "  }",
+                "}"));
+        YangModule module = new YangParser().parseYangFile(source.toString());
+        TelemetryValidator validator = new TelemetryValidator(module);
+
+        Check.equal(List.of(), problems(validator,
+                "{\"path\": \"/tm:interfaces/interface[name=eth0]/mtu\", \"value\": 1500}"), "leaf below a list entry");
+        Check.equal(List.of(), problems(validator,
+                "{\"path\": \"/tm:interfaces/interface[tm:name='eth]0']\", \"value\": {\"name\": \"eth]0\", \"mtu\": 9000}}"),
+                "quoted predicate matching the entry");
+        Check.equal(List.of("Key 'name' is 'eth1' but the path selects 'eth0'"), problems(validator,
+                "{\"path\": \"/tm:interfaces/interface[name=eth0]\", \"value\": {\"name\": \"eth1\"}}"),
+                "entry key differs from the predicate");
+        Check.equal(List.of("Predicate 'id' is not a key of list 'interface'"), problems(validator,
+                "{\"path\": \"/tm:interfaces/interface[id=1]/mtu\", \"value\": 1500}"), "predicate on a non-key leaf");
+        Check.equal(List.of("Predicate on 'interfaces', which is not a list"), problems(validator,
+                "{\"path\": \"/tm:interfaces[name=x]/description\", \"value\": \"x\"}"), "predicate on a container");
+        Check.equal(List.of("Malformed predicate '[name]'"), problems(validator,
+                "{\"path\": \"/tm:interfaces/interface[name]/mtu\", \"value\": 1500}"), "predicate without a value");
+
+        // "é" is two bytes in UTF-8, "€" three; plus one per line break
+        TelemetryValidator counting = new TelemetryValidator(module);
+        String line = "{\"path\": \"/tm:interfaces/description\", \"value\": \"é€\"}";
+        counting.validate(new BufferedReader(new StringReader(line + "\n")), error -> {});
+        Check.equal((long) line.length() + 3 + 1, counting.getBytes(), "bytes counted as UTF-8");
+        Check.equal(0L, counting.getErrors(), "no errors in the counted update");
+    }
+
+    private static List<String> problems(TelemetryValidator validator, String line) {
+        List<String> messages = new ArrayList<>();
+        validator.validateLine(line, error -> messages.add(error.getMessage()));
+        return messages;
+    }
+}
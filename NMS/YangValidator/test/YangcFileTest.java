@@ -0,0 +1,84 @@
+import model.CompactSchema;
+import model.YangModule;
+import model.YangNode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * .yangc round trips: a loaded module must convert to the same JSON as the
+ * parsed one and keep its patterns, module tables and shared nodes, and
+ * an opened file must read the same schema without building nodes.
+ */
+public class YangcFileTest {
+    public static void main(String[] args) throws Exception {
+        run();
+        Check.finish();
+    }
+
+    static void run() throws Exception {
+        Check.section("YangcFile");
+        Path dir = Check.tempDir();
+        JsonConverter converter = new JsonConverter();
+
+        YangModule example = new YangParser().parseYangFile("input/example.yang");
+        YangModule loaded = roundTrip(example, dir.resolve("example.yangc"));
+        Path json = dir.resolve("example.json");
+        converter.saveJsonToFile(loaded, json.toString());
+        Check.that(Arrays.equals(Files.readAllBytes(Paths.get("output/example.json")), Files.readAllBytes(json)),
+                "example.yangc converts byte-identically to output/example.json");
+
+        Path source = Check.write(dir, "tables.yang", String.join("\n",
+                "module tables {",
+                "  namespace \"urn:tables\"; prefix t;",
+                "  typedef short { type string { length \"1..8\"; pattern \"a\\nb\"; pattern \"[0-9]+\\.x\"; } }",
+                "  grouping addr { leaf ip { type string; } }",
+                "  container one { uses addr; }",
+                "  container two { uses addr; }",
+                "  augment \"/t:one\" { leaf extra { type short; } }",
+                "  deviation \"/t:two/t:ip\" { deviate not-supported; }",
+                "}"));
+        YangModule tables = new YangParser().parseYangFile(source.toString());
+        YangModule copy = roundTrip(tables, dir.resolve("tables.yangc"));
+
+        Check.equal(converter.convertToJsonString(tables), converter.convertToJsonString(copy), "tables JSON");
+        Check.equal(Arrays.asList("a\nb", "[0-9]+\\.x"), copy.getTypedef("short").getPatterns(),
+                "a pattern containing a newline stays one pattern");
+        Check.equal("1..8", copy.getTypedef("short").getLength(), "typedef length");
+        Check.that(copy.getGrouping("addr") != null, "grouping kept");
+        Check.equal(1, copy.getAugments().size(), "augments kept");
+        Check.equal("extra", copy.getAugments().get(0).getChildren().get(0).getName(), "augment body kept");
+        Check.equal(1, copy.getDeviations().size(), "deviations kept");
+        Check.equal("not-supported", copy.getDeviations().get(0).getChildren().get(0).getName(), "deviate kept");
+
+        YangNode ipOne = copy.findNode("/one/ip");
+        Check.that(ipOne != null && ipOne == copy.findNode("/two/ip"), "a grouping node shared by two uses stays shared");
+
+        // open() reads the schema in place instead of building nodes
+        CompactSchema mapped = YangcFile.open(dir.resolve("tables.yangc"));
+        Check.equal("tables", mapped.getModuleName(), "mapped module name");
+        Check.equal("one", mapped.getName(mapped.getFirstRoot()), "mapped first root");
+        Check.equal(Arrays.asList("a\nb", "[0-9]+\\.x"), mapped.getPatterns(mapped.getFirstTypedef()),
+                "mapped typedef patterns");
+        Check.that(mapped.getStrings() == null, "mapped strings are decoded from the file");
+        Check.equal(2L * 16, mapped.getArrayBytes(), "mapped columns take no heap arrays");
+
+        Path corrupt = dir.resolve("corrupt.yangc");
+        byte[] bytes = Files.readAllBytes(dir.resolve("tables.yangc"));
+        Files.write(corrupt, Arrays.copyOf(bytes, bytes.length / 2));
+        boolean rejected = false;
+        try {
+            YangcFile.load(corrupt);
+        } catch (IOException e) {
+            rejected = true;
+        }
+        Check.that(rejected, "a truncated file is rejected with an IOException");
+    }
+
+    private static YangModule roundTrip(YangModule module, Path file) throws IOException {
+        YangcFile.write(module, file);
+        return YangcFile.load(file);
+    }
+}